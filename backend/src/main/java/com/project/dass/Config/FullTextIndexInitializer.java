@@ -0,0 +1,47 @@
+package com.project.dass.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Δημιουργεί τα MySQL FULLTEXT indexes που χρειάζεται το recipes.search.mode=fulltext.
+ * Το JPA δεν μπορεί να δηλώσει FULLTEXT index στο @Table και το ddl-auto=update
+ * δεν τα πειράζει, οπότε τα προσθέτουμε εδώ μία φορά, αν λείπουν.
+ */
+@Component
+@ConditionalOnProperty(name = "recipes.search.mode", havingValue = "fulltext")
+public class FullTextIndexInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(FullTextIndexInitializer.class);
+
+    // { table, index, column } - ίδια ονόματα με το native query του RecipeRepository.searchIdsFullText
+    private static final String[][] FULLTEXT_INDEXES = {
+            {"recipes", "ft_recipes_title", "title"},
+            {"ingredients", "ft_ingredients_name", "name"},
+            {"recipe_steps", "ft_recipe_steps_description", "description"}
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FullTextIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        for (String[] index : FULLTEXT_INDEXES) {
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.statistics " +
+                            "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?",
+                    Integer.class, index[0], index[1]);
+            if (existing == null || existing == 0) {
+                logger.info("Creating FULLTEXT index {} on {}({})", index[1], index[0], index[2]);
+                jdbcTemplate.execute("ALTER TABLE " + index[0] + " ADD FULLTEXT INDEX " + index[1] + " (" + index[2] + ")");
+            }
+        }
+    }
+}
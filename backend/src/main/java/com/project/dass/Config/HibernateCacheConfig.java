@@ -0,0 +1,34 @@
+package com.project.dass.Config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Κάθε application context παίρνει δικό του JCache CacheManager για το second-level cache.
+ * Με το default URI του provider ο manager είναι κοινός σε όλη τη JVM, και το Hibernate τον
+ * κλείνει όταν κλείνει το SessionFactory: ένα context που τερματίζει (π.χ. σε άλλο test)
+ * άφηνε τα υπόλοιπα με κλειστά caches.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jcacheManagerCustomizer() {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", newCacheManager());
+    }
+
+    private static CacheManager newCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Ένα URI που δεν είναι αρχείο ή resource: ο Caffeine διαβάζει τότε το application.conf όπως με το default
+        URI uri = URI.create("dass:hibernate-" + UUID.randomUUID());
+        return provider.getCacheManager(uri, provider.getDefaultClassLoader());
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.dass.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Τα ids ήταν IDENTITY (AUTO_INCREMENT) και τώρα βγαίνουν από pooled sequences.
+ * Στη MySQL το Hibernate τα υλοποιεί με πίνακες *_seq, που το ddl-auto=update δημιουργεί
+ * ξεκινώντας από το 1. Σε μια υπάρχουσα βάση τα μετακινούμε πάνω από το μέγιστο id,
+ * πριν από οποιοδήποτε insert: αφού δημιουργηθούν τα beans (και το schema), αλλά πριν ο web server
+ * αρχίσει να δέχεται requests και πριν από το DataInitializer.
+ */
+@Component
+public class IdSequenceInitializer implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    // Ίδιο με το allocationSize των @SequenceGenerator
+    private static final long ALLOCATION_SIZE = 50;
+
+    // { πίνακας sequence, πίνακας entity }
+    private static final String[][] SEQUENCES = {
+            {"recipes_seq", "recipes"},
+            {"ingredients_seq", "ingredients"},
+            {"recipe_steps_seq", "recipe_steps"}
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String[] sequence : SEQUENCES) {
+            Long nextValue;
+            try {
+                nextValue = jdbcTemplate.queryForObject("SELECT next_val FROM " + sequence[0], Long.class);
+            } catch (DataAccessException e) {
+                // Βάση με πραγματικά sequences (π.χ. H2 στα tests): δεν υπάρχει πίνακας να διορθώσουμε
+                logger.debug("No sequence table {}: {}", sequence[0], e.getMessage());
+                continue;
+            }
+
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + sequence[1], Long.class);
+            if (nextValue != null && maxId != null && nextValue <= maxId) {
+                // Το pooled optimizer μοιράζει ids έως ALLOCATION_SIZE κάτω από την τιμή του πίνακα
+                long moved = maxId + ALLOCATION_SIZE + 1;
+                jdbcTemplate.update("UPDATE " + sequence[0] + " SET next_val = ?", moved);
+                logger.info("Moved {} from {} to {} (max id in {} is {})",
+                        sequence[0], nextValue, moved, sequence[1], maxId);
+            }
+        }
+    }
+}
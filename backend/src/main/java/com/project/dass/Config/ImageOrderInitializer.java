@@ -0,0 +1,62 @@
+package com.project.dass.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Το recipe_images απέκτησε στήλη θέσης (image_order). Σε μια υπάρχουσα βάση το ddl-auto=update
+ * την προσθέτει με την ίδια τιμή (0 ή NULL) σε όλες τις γραμμές, και το Hibernate δεν μπορεί να
+ * φτιάξει τη λίστα. Οι εικόνες κάθε τέτοιας συνταγής αριθμούνται 0..n-1 με τη σειρά που τις
+ * επέστρεφε ως τώρα η βάση (της εισαγωγής τους), πριν ο web server αρχίσει να δέχεται requests.
+ */
+@Component
+public class ImageOrderInitializer implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageOrderInitializer.class);
+
+    private record Image(String url, Integer order) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ImageOrderInitializer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Θέσεις που δεν είναι ακριβώς 0..n-1 (το COUNT(DISTINCT) δεν μετρά τα NULL)
+        List<Long> recipeIds = jdbcTemplate.queryForList(
+                "SELECT recipe_id FROM recipe_images GROUP BY recipe_id " +
+                        "HAVING COUNT(DISTINCT image_order) <> COUNT(*) OR MIN(image_order) <> 0 " +
+                        "OR MAX(image_order) <> COUNT(*) - 1", Long.class);
+        for (Long recipeId : recipeIds) {
+            List<Image> images = jdbcTemplate.query("SELECT image_url, image_order FROM recipe_images WHERE recipe_id = ?",
+                    (row, i) -> new Image(row.getString(1), (Integer) row.getObject(2)), recipeId);
+            // Σταθερή ταξινόμηση: όσες έχουν την ίδια θέση μένουν με τη σειρά της βάσης
+            List<Image> ordered = images.stream()
+                    .sorted(Comparator.comparing(Image::order, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM recipe_images WHERE recipe_id = ?", recipeId);
+                for (int i = 0; i < ordered.size(); i++) {
+                    jdbcTemplate.update("INSERT INTO recipe_images (recipe_id, image_url, image_order) VALUES (?, ?, ?)",
+                            recipeId, ordered.get(i).url(), i);
+                }
+            });
+        }
+        if (!recipeIds.isEmpty()) {
+            logger.info("Numbered the images of {} recipes", recipeIds.size());
+        }
+    }
+}
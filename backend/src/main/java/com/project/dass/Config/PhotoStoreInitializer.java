@@ -0,0 +1,62 @@
+package com.project.dass.Config;
+
+import com.project.dass.Service.PhotoStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Οι φωτογραφίες που ανέβηκαν πριν από την αποθήκευση κατά hash (ονόματα uuid) μπαίνουν στο
+ * photos/objects/ ως hard links, με τα ίδια ονόματα, ώστε ίδια περιεχόμενα να κρατιούνται μία φορά.
+ * Η βάση δεν αλλάζει: τα ονόματα και τα URLs μένουν ίδια.
+ * <p>
+ * Η μεταφορά διαβάζει (και κάνει hash) κάθε παλιά φωτογραφία, οπότε τρέχει σε δικό της thread αφού
+ * ξεκινήσει η εφαρμογή· μέχρι να τελειώσει οι φωτογραφίες σερβίρονται κανονικά από τα ονόματά τους.
+ * Πριν από αυτήν σβήνονται τα προσωρινά αρχεία uploads που έμειναν μισά από προηγούμενη εκτέλεση.
+ */
+@Component
+public class PhotoStoreInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoStoreInitializer.class);
+
+    private final PhotoStore photoStore;
+    // Ό,τι προσωρινό αρχείο είναι παλαιότερο από αυτή τη στιγμή δεν ανήκει σε upload αυτής της εκτέλεσης
+    private final Instant startedAt = Instant.now();
+
+    public PhotoStoreInitializer(PhotoStore photoStore) {
+        this.photoStore = photoStore;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateInBackground() {
+        Thread thread = new Thread(this::migrate, "photo-store-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void migrate() {
+        try {
+            int swept = photoStore.sweepUploads(startedAt);
+            if (swept > 0) {
+                logger.info("Removed {} unfinished photo uploads", swept);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to remove unfinished photo uploads: {}", e.getMessage());
+        }
+
+        try {
+            int migrated = photoStore.migrate();
+            if (migrated > 0) {
+                logger.info("Moved {} photos into the content-addressed store", migrated);
+            }
+        } catch (IOException e) {
+            // Οι φωτογραφίες σερβίρονται κανονικά και χωρίς μεταφορά· ξαναδοκιμάζουμε στην επόμενη εκκίνηση
+            logger.warn("Failed to move photos into the content-addressed store: {}", e.getMessage());
+        }
+    }
+}
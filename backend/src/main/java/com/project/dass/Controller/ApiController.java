@@ -1,36 +1,110 @@
 package com.project.dass.Controller;
 
+import com.project.dass.Model.CacheRegionStats;
+import com.project.dass.Model.CachedRecipeJson;
 import com.project.dass.Model.Recipe;
+import com.project.dass.Model.DifficultyLevel;
+import com.project.dass.Model.ExecutionSnapshot;
+import com.project.dass.Model.ImportReport;
+import com.project.dass.Model.PhotoFile;
 import com.project.dass.Model.RecipeCategory;
+import com.project.dass.Model.RecipeCoverage;
+import com.project.dass.Model.RecipeFacets;
+import com.project.dass.Model.RecipeFilter;
+import com.project.dass.Model.RecipePage;
+import com.project.dass.Model.RecipeSort;
+import com.project.dass.Model.StepProgress;
+import com.project.dass.Model.StepTimer;
+import com.project.dass.Model.Suggestion;
 import com.project.dass.Repos.RecipeRepository;
+import com.project.dass.Service.CacheStatsService;
+import com.project.dass.Service.ExecutionSessionService;
 import com.project.dass.Service.PhotoService;
+import com.project.dass.Service.RecipeExportService;
+import com.project.dass.Service.RecipeFacetCounter;
+import com.project.dass.Service.RecipeImportService;
+import com.project.dass.Service.RecipeProgressService;
+import com.project.dass.Service.RecipeResponseCache;
 import com.project.dass.Service.RecipeService;
+import com.project.dass.Service.RecipeSuggestIndex;
+import com.project.dass.Service.StepTimerService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api")
-@CrossOrigin(origins = "*") // Επιτρέπει σε όλα τα frontends να μιλούν με το Spring
+@CrossOrigin(origins = "*", exposedHeaders = {ApiController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG}) // Επιτρέπει σε όλα τα frontends να μιλούν με το Spring
 public class ApiController {
 
+    // Header με το cursor της επόμενης σελίδας (απουσιάζει στην τελευταία σελίδα)
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Τιμές του ?view= στα list endpoints
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_SUMMARY = "summary";
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    // Content type του PATCH /recipes/{id} (RFC 7396)
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     @Autowired
     private RecipeService recipeService;
 
     @Autowired
     private RecipeRepository recipeRepository;
 
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @Autowired
+    private RecipeSuggestIndex recipeSuggestIndex;
+
+    @Autowired
+    private RecipeFacetCounter recipeFacetCounter;
+
+    @Autowired
+    private RecipeExportService recipeExportService;
+
+    @Autowired
+    private RecipeImportService recipeImportService;
+
+    @Autowired
+    private RecipeResponseCache recipeResponseCache;
+
+    @Autowired
+    private RecipeProgressService recipeProgressService;
+
+    @Autowired
+    private ExecutionSessionService executionSessionService;
+
+    @Autowired
+    private StepTimerService stepTimerService;
+
     @Autowired
     @Qualifier("photoService")
     private PhotoService photoService;
@@ -44,30 +118,207 @@ public class ApiController {
         return "Hello World";
     }
 
-    // GET all recipes
+    // GET recipes (keyset pagination - το cursor της επόμενης σελίδας στο header X-Next-Cursor)
     @GetMapping(value = "/recipes", produces = "application/json;charset=UTF-8")
-    public ResponseEntity<List<Recipe>> getAllRecipes() {
-        return ResponseEntity.ok(recipeService.getAllRecipes());
+    public ResponseEntity<List<?>> getAllRecipes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "ID_ASC") RecipeSort sort,
+            @RequestParam(defaultValue = VIEW_FULL) String view,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        RecipePage<?> page;
+        try {
+            page = isSummaryView(view)
+                    ? recipeService.getRecipeSummariesPage(cursor, limit, sort)
+                    : recipeService.getRecipesPage(cursor, limit, sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return listResponse(page.items(), page.nextCursor(), ifNoneMatch);
     }
 
-    // GET recipe by ID
+    // GET recipe by ID (σερβίρεται από το cache με το έτοιμο JSON, gzip αν το δέχεται ο client)
     @GetMapping(value = "/recipes/{id}", produces = "application/json;charset=UTF-8")
-    public ResponseEntity<Recipe> getRecipeById(@PathVariable Long id) {
-        Optional<Recipe> recipe = recipeService.getRecipeById(id);
-        return recipe.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getRecipeById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // 304 μόνο από το version (cache ή ένα μικρό query), χωρίς φόρτωμα του graph
+        if (ifNoneMatch != null) {
+            Optional<Long> version = recipeResponseCache.getCachedVersion(id)
+                    .or(() -> recipeService.getRecipeVersion(id));
+            if (version.isPresent() && ETags.matchesIfNoneMatch(ifNoneMatch, ETags.forRecipe(id, version.get()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(ETags.forRecipe(id, version.get()))
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+        }
+
+        Optional<CachedRecipeJson> json = recipeResponseCache.getOrLoad(id, () -> recipeService.getRecipeDetails(id));
+        if (json.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8))
+                .eTag(ETags.forRecipe(id, json.get().version()))
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (json.get().hasGzip() && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(json.get().gzip());
+        }
+        return response.body(json.get().json());
+    }
+
+    // Accept-Encoding με q-values: το "gzip;q=0" (ή "*;q=0" χωρίς ρητό gzip) σημαίνει ότι ο client το αρνείται
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            if (!coding.equals("gzip") && !coding.equals("x-gzip") && !coding.equals("*")) {
+                continue;
+            }
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("*")) {
+                wildcardQuality = quality;
+            } else {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
     }
 
-    // GET recipes by category
+    // GET recipes by category (?view=summary για ελαφριές προβολές)
     @GetMapping(value = "/recipes/category/{category}", produces = "application/json;charset=UTF-8")
-    public ResponseEntity<List<Recipe>> getRecipesByCategory(@PathVariable RecipeCategory category) {
-        return ResponseEntity.ok(recipeService.getRecipesByCategory(category));
+    public ResponseEntity<List<?>> getRecipesByCategory(
+            @PathVariable RecipeCategory category,
+            @RequestParam(defaultValue = VIEW_FULL) String view,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<?> recipes = isSummaryView(view)
+                ? recipeService.getRecipeSummariesByCategory(category)
+                : recipeService.getRecipesByCategory(category);
+        return listResponse(recipes, null, ifNoneMatch);
     }
 
-    // GET recipes by search term
+    // GET recipes by search term, κατά σχετικότητα (σελίδες με X-Next-Cursor, ?view=summary για ελαφριές προβολές)
     @GetMapping(value = "/recipes/search", produces = "application/json;charset=UTF-8")
-    public ResponseEntity<List<Recipe>> searchRecipes(@RequestParam String title) {
-        return ResponseEntity.ok(recipeService.searchRecipes(title));
+    public ResponseEntity<List<?>> searchRecipes(
+            @RequestParam String title,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = VIEW_FULL) String view,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        RecipePage<?> page;
+        try {
+            page = isSummaryView(view)
+                    ? recipeService.searchRecipeSummaries(title, cursor, limit)
+                    : recipeService.searchRecipes(title, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return listResponse(page.items(), page.nextCursor(), ifNoneMatch);
+    }
+
+    // GET summaries με συνδυασμό κριτηρίων (όλα προαιρετικά), φιλτράρισμα στη βάση με keyset pagination
+    @GetMapping(value = "/recipes/filter", produces = "application/json;charset=UTF-8")
+    public ResponseEntity<List<?>> filterRecipes(
+            @RequestParam(required = false) RecipeCategory category,
+            @RequestParam(required = false) DifficultyLevel difficulty,
+            @RequestParam(required = false) Integer maxTotalTime,
+            @RequestParam(required = false) Integer maxPrepTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date createdAfter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "ID_ASC") RecipeSort sort,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        RecipeFilter filter = new RecipeFilter(category, difficulty, maxTotalTime, maxPrepTime, createdAfter);
+        RecipePage<?> page;
+        try {
+            page = recipeService.filterRecipeSummaries(filter, cursor, limit, sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return listResponse(page.items(), page.nextCursor(), ifNoneMatch);
+    }
+
+    // GET όλος ο κατάλογος ως NDJSON, γραμμένος σταδιακά (σταθερή μνήμη για backup/sync)
+    @GetMapping(value = "/recipes/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRecipes() {
+        StreamingResponseBody body = out -> recipeExportService.exportNdjson(out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"recipes.ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // POST εισαγωγή συνταγών από NDJSON (μορφή του export), σε chunks με batched inserts
+    @PostMapping(value = "/recipes/import", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = "application/json;charset=UTF-8")
+    public ResponseEntity<ImportReport> importRecipes(
+            InputStream body,
+            @RequestParam(required = false) Integer chunkSize) throws IOException {
+        return ResponseEntity.ok(recipeImportService.importNdjson(body, chunkSize));
+    }
+
+    // GET πλήθος συνταγών ανά κατηγορία και δυσκολία (από μετρητές στη μνήμη)
+    @GetMapping(value = "/recipes/facets", produces = "application/json;charset=UTF-8")
+    public ResponseEntity<RecipeFacets> getFacets() {
+        return ResponseEntity.ok(recipeFacetCounter.getFacets());
+    }
+
+    // GET autocomplete για το πεδίο αναζήτησης (από τη μνήμη, χωρίς query στη MySQL)
+    @GetMapping(value = "/recipes/suggest", produces = "application/json;charset=UTF-8")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(recipeSuggestIndex.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    // GET "τι μπορώ να μαγειρέψω" (?ingredients=eggs,spaghetti), συνταγές κατά κάλυψη υλικών
+    @GetMapping(value = "/recipes/can-cook", produces = "application/json;charset=UTF-8")
+    public ResponseEntity<List<RecipeCoverage>> findCookableRecipes(
+            @RequestParam List<String> ingredients,
+            @RequestParam(required = false) Integer maxMissing,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(recipeService.findCookableRecipes(ingredients, maxMissing, limit));
+    }
+
+    // Λίστα με ETag: αν ταιριάζει με το If-None-Match στέλνουμε 304 χωρίς serialization
+    private static ResponseEntity<List<?>> listResponse(List<?> recipes, String nextCursor, String ifNoneMatch) {
+        String etag = ETags.forList(recipes, nextCursor);
+        boolean notModified = ETags.matchesIfNoneMatch(ifNoneMatch, etag);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache());
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return notModified ? response.build() : response.body(recipes);
+    }
+
+    private static boolean isSummaryView(String view) {
+        return VIEW_SUMMARY.equalsIgnoreCase(view);
     }
 
     // POST create new recipe
@@ -77,14 +328,57 @@ public class ApiController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedRecipe);
     }
 
-    // PUT update recipe
+    // PUT update recipe (με If-Match: 412 αν κάποιος άλλος την άλλαξε στο μεταξύ)
     @PutMapping(value = "/recipes/{id}", produces = "application/json;charset=UTF-8")
-    public ResponseEntity<Recipe> updateRecipe(@PathVariable Long id, @RequestBody Recipe recipeDetails) {
+    public ResponseEntity<Recipe> updateRecipe(
+            @PathVariable Long id,
+            @RequestBody Recipe recipeDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = null;
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            expectedVersion = ETags.versionFromIfMatch(ifMatch, id);
+            if (expectedVersion == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+        }
+
         // Καλούμε το Service να κάνει όλη τη δουλειά
-        Optional<Recipe> updatedRecipe = recipeService.updateRecipe(id, recipeDetails);
+        Optional<Recipe> updatedRecipe;
+        try {
+            updatedRecipe = recipeService.updateRecipe(id, recipeDetails, expectedVersion);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
         // Αν γυρίσει αποτέλεσμα -> 200 OK, αλλιώς -> 404 Not Found
         return updatedRecipe
-                .map(ResponseEntity::ok)
+                .map(recipe -> ResponseEntity.ok().eTag(ETags.forRecipe(id, recipe.getVersion())).body(recipe))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // PATCH με JSON Merge Patch (RFC 7396): ο client στέλνει μόνο ό,τι άλλαξε και παίρνει πίσω μόνο το νέο ETag
+    @PatchMapping(value = "/recipes/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patchRecipe(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = null;
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            expectedVersion = ETags.versionFromIfMatch(ifMatch, id);
+            if (expectedVersion == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+        }
+
+        Optional<Recipe> patchedRecipe;
+        try {
+            patchedRecipe = recipeService.patchRecipe(id, patch, expectedVersion);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        return patchedRecipe
+                .map(recipe -> ResponseEntity.noContent().eTag(ETags.forRecipe(id, recipe.getVersion())).<Void>build())
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -100,18 +394,115 @@ public class ApiController {
 
     // --- NEW ENDPOINT: PROGRESS CALCULATION ---
     // --- NEW ENDPOINT: PROGRESS CALCULATION ---
+    // Από cached αθροιστικές διάρκειες: binary search, χωρίς φόρτωμα της συνταγής
     @GetMapping(value = "/recipes/{id}/progress", produces = "application/json")
     public ResponseEntity<Double> getExecutionProgress(
             @PathVariable Long id,
             @RequestParam int completedStepOrder) {
 
-        Optional<Recipe> recipeOpt = recipeService.getRecipeById(id);
-        if (recipeOpt.isEmpty()) {
-            return ResponseEntity.notFound().build();
+        return recipeProgressService.getProgress(id, completedStepOrder)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Η πρόοδος μετά από κάθε βήμα σε μία απάντηση, ώστε η εκτέλεση να μη χρειάζεται request ανά βήμα
+    @GetMapping(value = "/recipes/{id}/progress/curve", produces = "application/json")
+    public ResponseEntity<List<StepProgress>> getExecutionProgressCurve(@PathVariable Long id) {
+        return recipeProgressService.getProgressCurve(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // --- EXECUTION SESSIONS ---
+    // Η εκτέλεση ζει στον server και ο client παίρνει τις αλλαγές με Server-Sent Events
+
+    // POST ξεκινά μια νέα εκτέλεση (404 αν η συνταγή δεν υπάρχει)
+    @PostMapping(value = "/recipes/{id}/executions", produces = "application/json")
+    public ResponseEntity<ExecutionSnapshot> startExecution(@PathVariable Long id) {
+        return executionSessionService.start(id)
+                .map(snapshot -> ResponseEntity.status(HttpStatus.CREATED).body(snapshot))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/executions/{sessionId}", produces = "application/json")
+    public ResponseEntity<ExecutionSnapshot> getExecution(@PathVariable String sessionId) {
+        return executionSessionService.get(sessionId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Ολοκλήρωση του τρέχοντος βήματος (409 αν η εκτέλεση είναι σε παύση ή έχει τελειώσει)
+    @PostMapping(value = "/executions/{sessionId}/advance", produces = "application/json")
+    public ResponseEntity<ExecutionSnapshot> advanceExecution(@PathVariable String sessionId) {
+        return changeExecution(() -> executionSessionService.advance(sessionId));
+    }
+
+    @PostMapping(value = "/executions/{sessionId}/pause", produces = "application/json")
+    public ResponseEntity<ExecutionSnapshot> pauseExecution(@PathVariable String sessionId) {
+        return changeExecution(() -> executionSessionService.pause(sessionId));
+    }
+
+    @PostMapping(value = "/executions/{sessionId}/resume", produces = "application/json")
+    public ResponseEntity<ExecutionSnapshot> resumeExecution(@PathVariable String sessionId) {
+        return changeExecution(() -> executionSessionService.resume(sessionId));
+    }
+
+    // SSE stream: ένα "progress" event με την τρέχουσα κατάσταση και μετά ένα σε κάθε αλλαγή
+    @GetMapping(value = "/executions/{sessionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamExecution(@PathVariable String sessionId) {
+        return executionSessionService.subscribe(sessionId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // --- STEP TIMERS ---
+    // Όταν λήξει ένα χρονόμετρο, οι clients του /executions/{sessionId}/events παίρνουν ένα "timer" event
+
+    // POST ξεκινά χρονόμετρο για ένα βήμα (με τη διάρκεια του βήματος, ή ?minutes= αν δοθεί)
+    @PostMapping(value = "/executions/{sessionId}/timers", produces = "application/json")
+    public ResponseEntity<StepTimer> startStepTimer(
+            @PathVariable String sessionId,
+            @RequestParam int stepOrder,
+            @RequestParam(required = false) Integer minutes) {
+        try {
+            return stepTimerService.start(sessionId, stepOrder, minutes)
+                    .map(timer -> ResponseEntity.status(HttpStatus.CREATED).body(timer))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping(value = "/executions/{sessionId}/timers", produces = "application/json")
+    public ResponseEntity<List<StepTimer>> getStepTimers(@PathVariable String sessionId) {
+        return ResponseEntity.ok(stepTimerService.list(sessionId));
+    }
+
+    @DeleteMapping(value = "/executions/{sessionId}/timers/{timerId}")
+    public ResponseEntity<Void> cancelStepTimer(@PathVariable String sessionId, @PathVariable long timerId) {
+        return stepTimerService.cancel(sessionId, timerId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private static ResponseEntity<ExecutionSnapshot> changeExecution(Supplier<Optional<ExecutionSnapshot>> change) {
+        try {
+            return change.get()
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
+    }
 
-        double progress = recipeService.calculateProgress(recipeOpt.get(), completedStepOrder);
-        return ResponseEntity.ok(progress);
+    // --- CACHE MONITORING ---
+
+    // GET hit/miss/eviction counters του second-level cache (για sizing των regions)
+    @GetMapping(value = "/cache/stats", produces = "application/json")
+    public ResponseEntity<List<CacheRegionStats>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.getSecondLevelCacheStats());
     }
 
     // --- PHOTO CRUD ENDPOINTS ---
@@ -124,41 +515,44 @@ public class ApiController {
 
         Map<String, Long> ids = new HashMap<>();
         ids.put("recipeId", id);
-        Optional<String> imageUrl = photoService.uploadPhoto(ids, file);
+        return photoUploadResponse(id, null, photoService.uploadPhoto(ids, file));
+    }
 
-        if (imageUrl.isEmpty()) {
-            // Check if recipe exists to provide better error message
-            if (recipeService.getRecipeById(id).isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body("Recipe not found with id: " + id);
-            }
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body("Failed to upload photo. File may be empty or invalid.");
-        }
+    // POST - Upload a photo as the raw body (Content-Type: image/*), streamed straight into the photos folder
+    @PostMapping(value = "/recipes/{id}/photo", consumes = "image/*")
+    public ResponseEntity<String> uploadPhotoStream(
+            @PathVariable Long id,
+            InputStream body) {
 
-        return ResponseEntity.status(HttpStatus.OK)
-                .body("Photo uploaded successfully: " + imageUrl.get());
+        Map<String, Long> ids = new HashMap<>();
+        ids.put("recipeId", id);
+        return photoUploadResponse(id, null, photoService.uploadPhoto(ids, body));
     }
 
-    // GET - Get photo file
+    // GET - Get photo file (immutable caching, Range requests, sendfile on Tomcat)
+    // ?w= selects a resized variant, e.g. ?w=320 for thumbnails
     @GetMapping(value = "/recipes/{id}/photo/{filename}")
     public ResponseEntity<Resource> getPhoto(
             @PathVariable Long id,
-            @PathVariable String filename) {
-
-        Optional<Resource> resource = photoService.getPhoto(id, filename);
+            @PathVariable String filename,
+            @RequestParam(required = false) Integer w,
+            HttpServletRequest request) {
+
+        Optional<PhotoFile> photo;
+        try {
+            photo = photoService.getPhoto(id, filename, w);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
 
-        if (resource.isEmpty()) {
+        if (photo.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         // Determine content type based on file extension
         MediaType mediaType = photoService.getContentType(filename);
 
-        return ResponseEntity.ok()
-                .contentType(mediaType)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
-                .body(resource.get());
+        return PhotoResponses.serve(request, photo.get(), mediaType, filename);
     }
 
     // GET - List all photos for a recipe
@@ -211,8 +605,24 @@ public class ApiController {
         Map<String, Long> ids = new HashMap<>();
         ids.put("recipeId", recipeId);
         ids.put("stepId", stepId);
-        Optional<String> imageUrl = stepPhotoService.uploadPhoto(ids, file);
+        return photoUploadResponse(recipeId, stepId, stepPhotoService.uploadPhoto(ids, file));
+    }
+
+    // POST - Upload a step photo as the raw body (Content-Type: image/*), streamed straight into the photos folder
+    @PostMapping(value = "/recipes/{recipeId}/steps/{stepId}/photo", consumes = "image/*")
+    public ResponseEntity<String> uploadStepPhotoStream(
+            @PathVariable Long recipeId,
+            @PathVariable Long stepId,
+            InputStream body) {
+
+        Map<String, Long> ids = new HashMap<>();
+        ids.put("recipeId", recipeId);
+        ids.put("stepId", stepId);
+        return photoUploadResponse(recipeId, stepId, stepPhotoService.uploadPhoto(ids, body));
+    }
 
+    // The response of every photo upload (stepId is null for recipe photos)
+    private ResponseEntity<String> photoUploadResponse(Long recipeId, Long stepId, Optional<String> imageUrl) {
         if (imageUrl.isEmpty()) {
             // Check if recipe exists to provide better error message
             Optional<Recipe> recipeOpt = recipeService.getRecipeById(recipeId);
@@ -221,7 +631,7 @@ public class ApiController {
                         .body("Recipe not found with id: " + recipeId);
             }
             // Check if step exists
-            boolean stepExists = recipeOpt.get().getSteps().stream()
+            boolean stepExists = stepId == null || recipeOpt.get().getSteps().stream()
                     .anyMatch(step -> step.getId().equals(stepId));
             if (!stepExists) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -235,26 +645,31 @@ public class ApiController {
                 .body("Photo uploaded successfully: " + imageUrl.get());
     }
 
-    // GET - Get photo file for a recipe step
+    // GET - Get photo file for a recipe step (immutable caching, Range requests, sendfile on Tomcat)
+    // ?w= selects a resized variant, as for recipe photos
     @GetMapping(value = "/recipes/{recipeId}/steps/{stepId}/photo/{filename}")
     public ResponseEntity<Resource> getStepPhoto(
             @PathVariable Long recipeId,
             @PathVariable Long stepId,
-            @PathVariable String filename) {
-
-        Optional<Resource> resource = stepPhotoService.getPhoto(recipeId, filename);
+            @PathVariable String filename,
+            @RequestParam(required = false) Integer w,
+            HttpServletRequest request) {
+
+        Optional<PhotoFile> photo;
+        try {
+            photo = stepPhotoService.getPhoto(recipeId, filename, w);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
 
-        if (resource.isEmpty()) {
+        if (photo.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         // Determine content type based on file extension
         MediaType mediaType = stepPhotoService.getContentType(filename);
 
-        return ResponseEntity.ok()
-                .contentType(mediaType)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
-                .body(resource.get());
+        return PhotoResponses.serve(request, photo.get(), mediaType, filename);
     }
 
     // DELETE - Delete a specific photo for a recipe step
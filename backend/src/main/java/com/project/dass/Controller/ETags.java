@@ -0,0 +1,74 @@
+package com.project.dass.Controller;
+
+import com.project.dass.Model.Recipe;
+import com.project.dass.Model.RecipeSummary;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Strong ETags για τις συνταγές, με βάση το @Version της Recipe.
+ * Μια συνταγή έχει ETag "{id}-{version}", μια λίστα το hash των (id, version) της.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String forRecipe(Long id, Long version) {
+        return "\"" + id + "-" + (version == null ? 0 : version) + "\"";
+    }
+
+    static String forList(List<?> items, String nextCursor) {
+        StringBuilder key = new StringBuilder();
+        for (Object item : items) {
+            switch (item) {
+                case Recipe recipe -> key.append(recipe.getId()).append(':').append(recipe.getVersion());
+                case RecipeSummary summary -> key.append(summary.id()).append(':').append(summary.version());
+                default -> throw new IllegalArgumentException("Unsupported list item: " + item.getClass());
+            }
+            key.append(';');
+        }
+        key.append(nextCursor);
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * If-None-Match: weak σύγκριση (αγνοούμε το W/ prefix), δέχεται λίστα ETags ή "*"
+     */
+    static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Match: strong σύγκριση, επιστρέφει το version από ένα ETag της μορφής "{id}-{version}"
+     * @return Το version, ή null αν κανένα ETag του header δεν ανήκει σε αυτή τη συνταγή
+     */
+    static Long versionFromIfMatch(String ifMatch, Long id) {
+        String prefix = "\"" + id + "-";
+        for (String candidate : ifMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith(prefix) && value.endsWith("\"") && value.length() > prefix.length() + 1) {
+                try {
+                    return Long.valueOf(value.substring(prefix.length(), value.length() - 1));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,159 @@
+package com.project.dass.Controller;
+
+import com.project.dass.Model.PhotoFile;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Responses for photo files. A photo filename carries the SHA-256 of its content (older uploads keep
+ * their random UUID names) and a stored file is never rewritten: new content gets a new name, so a
+ * photo URL always means the same bytes and responses are cacheable forever ({@code immutable}),
+ * with an ETag and Last-Modified from the file metadata for revalidation.
+ * The exception is an original served in place of a resized variant that is not ready yet
+ * ({@link PhotoFile#provisional()}): it is revalidated on every use ({@code no-cache}), and once
+ * the variant exists its different ETag replaces the cached original.
+ * <p>
+ * On Tomcat the bytes go out through sendfile (the connector hands the file to the kernel
+ * with {@code FileChannel.transferTo}), so they are never copied through the heap.
+ * Elsewhere Spring writes the {@link Resource} body and handles Range requests itself.
+ */
+final class PhotoResponses {
+
+    // Request attributes of Tomcat's sendfile support (the same ones its DefaultServlet uses)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
+    private PhotoResponses() {
+    }
+
+    static ResponseEntity<Resource> serve(HttpServletRequest request, PhotoFile photo, MediaType mediaType, String filename) {
+        String etag = etag(photo);
+        CacheControl cacheControl = photo.provisional() ? REVALIDATE : IMMUTABLE;
+        // HTTP dates have second precision
+        long lastModified = photo.lastModifiedMillis() / 1000 * 1000;
+
+        if (notModified(request, etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        List<HttpRange> ranges = List.of();
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request, etag, lastModified)) {
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                return rangeNotSatisfiable(photo);
+            }
+            for (HttpRange range : ranges) {
+                if (!satisfiable(range, photo.size())) {
+                    return rangeNotSatisfiable(photo);
+                }
+            }
+        }
+
+        // Multiple ranges (multipart/byteranges) and HEAD are left to Spring
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))
+                || HttpMethod.HEAD.matches(request.getMethod()) || ranges.size() > 1) {
+            return response(HttpStatus.OK, mediaType, cacheControl, etag, lastModified, filename)
+                    .body(new FileSystemResource(photo.path()));
+        }
+
+        boolean partial = ranges.size() == 1;
+        long start = partial ? ranges.getFirst().getRangeStart(photo.size()) : 0;
+        long end = partial ? ranges.getFirst().getRangeEnd(photo.size()) + 1 : photo.size(); // exclusive
+
+        ResponseEntity.BodyBuilder response;
+        if (partial) {
+            response = response(HttpStatus.PARTIAL_CONTENT, mediaType, cacheControl, etag, lastModified, filename)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + photo.size());
+        } else {
+            response = response(HttpStatus.OK, mediaType, cacheControl, etag, lastModified, filename);
+        }
+
+        // No body: Tomcat sends the file (or the range) after the headers
+        request.setAttribute(SENDFILE_FILENAME, photo.path().toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, end);
+        return response.contentLength(end - start).build();
+    }
+
+    private static ResponseEntity<Resource> rangeNotSatisfiable(PhotoFile photo) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + photo.size())
+                .build();
+    }
+
+    private static ResponseEntity.BodyBuilder response(HttpStatus status, MediaType mediaType, CacheControl cacheControl,
+                                                       String etag, long lastModified, String filename) {
+        return ResponseEntity.status(status)
+                .contentType(mediaType)
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
+    }
+
+    // Strong ETag: the content of a photo file never changes, so size and mtime identify it
+    private static String etag(PhotoFile photo) {
+        return "\"" + Long.toHexString(photo.size()) + "-" + Long.toHexString(photo.lastModifiedMillis()) + "\"";
+    }
+
+    // If-None-Match wins over If-Modified-Since (RFC 9110, 13.2.2)
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return ETags.matchesIfNoneMatch(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    // Without If-Range, or if it still names this file, the Range applies; otherwise send the whole file
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.trim().startsWith("\"") || ifRange.trim().startsWith("W/")) {
+            return ifRange.trim().equals(etag);
+        }
+        return dateHeader(request, HttpHeaders.IF_RANGE) == lastModified;
+    }
+
+    private static boolean satisfiable(HttpRange range, long size) {
+        try {
+            return range.getRangeStart(size) < size;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.dass.Model;
+
+/**
+ * Στατιστικά ενός region του Hibernate second-level cache.
+ *
+ * @param hits      Αναγνώσεις που βρέθηκαν στο cache
+ * @param misses    Αναγνώσεις που πήγαν στη βάση
+ * @param puts      Εγγραφές στο cache
+ * @param evictions Εγγραφές που αφαιρέθηκαν λόγω μεγέθους ή TTL (-1 αν δεν είναι διαθέσιμο)
+ */
+public record CacheRegionStats(String region, long hits, long misses, long puts, long evictions) {
+}
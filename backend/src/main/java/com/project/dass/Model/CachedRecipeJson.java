@@ -0,0 +1,19 @@
+package com.project.dass.Model;
+
+/**
+ * Το ήδη κωδικοποιημένο JSON μιας συνταγής, έτοιμο να σταλεί χωρίς Jackson.
+ *
+ * @param version Το version της συνταγής που κωδικοποιήθηκε (για το ETag)
+ * @param json    UTF-8 JSON bytes
+ * @param gzip    Τα ίδια bytes συμπιεσμένα με gzip, ή null αν η συμπίεση δεν αξίζει
+ */
+public record CachedRecipeJson(Long version, byte[] json, byte[] gzip) {
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    public int sizeInBytes() {
+        return json.length + (gzip == null ? 0 : gzip.length);
+    }
+}
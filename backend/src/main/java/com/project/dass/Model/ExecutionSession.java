@@ -0,0 +1,51 @@
+package com.project.dass.Model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Η αποθηκευμένη κατάσταση μιας εκτέλεσης συνταγής.
+ * Η ζωντανή κατάσταση βρίσκεται στη μνήμη (ExecutionSessionServiceImpl) και γράφεται
+ * εδώ σε batches, ώστε μια εκτέλεση να συνεχίζεται μετά από eviction ή restart.
+ */
+@Entity
+@Table(name = "execution_sessions", indexes = {
+        @Index(name = "idx_execution_sessions_recipe_id", columnList = "recipe_id"),
+        @Index(name = "idx_execution_sessions_updated_at", columnList = "updated_at")
+})
+@Getter
+@Setter
+public class ExecutionSession {
+
+    // UUID που δίνει ο server (όχι sequence, ώστε να μη μαντεύεται)
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "recipe_id", nullable = false)
+    private Long recipeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ExecutionStatus status;
+
+    // Πόσα βήματα (με τη σειρά του stepOrder) έχουν ολοκληρωθεί
+    private int completedSteps;
+
+    // Χρόνος σε RUNNING μέχρι το τελευταίο pause
+    private long activeMillis;
+
+    // Πότε ξεκίνησε το τρέχον διάστημα RUNNING (null σε PAUSED/FINISHED)
+    private Date resumedAt;
+
+    private Date startedAt;
+
+    private Date updatedAt;
+
+    // Η καμπύλη προόδου (JSON) όπως ήταν στην αρχή της εκτέλεσης. null σε εγγραφές πριν από αυτή τη στήλη.
+    @Lob
+    private String progressCurve;
+}
@@ -0,0 +1,22 @@
+package com.project.dass.Model;
+
+/**
+ * Η κατάσταση μιας εκτέλεσης όπως τη βλέπει ο client (απάντηση των endpoints και data των SSE events).
+ *
+ * @param sequence           Αυξάνεται σε κάθε αλλαγή: ο client αγνοεί events με μικρότερο sequence
+ * @param completedStepOrder Το stepOrder του τελευταίου ολοκληρωμένου βήματος (null πριν από το πρώτο)
+ * @param nextStepOrder      Το stepOrder του τρέχοντος βήματος (null όταν ολοκληρωθεί η συνταγή)
+ * @param elapsedSeconds     Χρόνος εκτέλεσης χωρίς τις παύσεις
+ */
+public record ExecutionSnapshot(
+        String sessionId,
+        Long recipeId,
+        ExecutionStatus status,
+        long sequence,
+        int completedSteps,
+        int totalSteps,
+        Integer completedStepOrder,
+        Integer nextStepOrder,
+        double progress,
+        long elapsedSeconds) {
+}
@@ -0,0 +1,8 @@
+package com.project.dass.Model;
+
+// Κατάσταση μιας εκτέλεσης συνταγής
+public enum ExecutionStatus {
+    RUNNING,
+    PAUSED,
+    FINISHED
+}
@@ -0,0 +1,9 @@
+package com.project.dass.Model;
+
+/**
+ * Ένα record του import που δεν αποθηκεύτηκε.
+ *
+ * @param line Ο αριθμός γραμμής στο NDJSON (από 1)
+ */
+public record ImportError(long line, String message) {
+}
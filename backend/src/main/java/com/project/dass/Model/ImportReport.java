@@ -0,0 +1,16 @@
+package com.project.dass.Model;
+
+import java.util.List;
+
+/**
+ * Αποτέλεσμα του POST /recipes/import.
+ *
+ * @param errors Τα πρώτα σφάλματα ανά γραμμή (το failed μετράει όλα τα σφάλματα)
+ */
+public record ImportReport(
+        long imported,
+        long failed,
+        long elapsedMillis,
+        double recipesPerSecond,
+        List<ImportError> errors) {
+}
@@ -0,0 +1,15 @@
+package com.project.dass.Model;
+
+import java.util.List;
+
+/**
+ * Πόσα από τα υλικά μιας συνταγής έχει ο χρήστης (αποτέλεσμα του IngredientMatchIndex).
+ *
+ * @param missingIngredients Τα υλικά της συνταγής που λείπουν, με το όνομα όπως είναι στη βάση
+ */
+public record IngredientMatch(
+        Long recipeId,
+        int matchedIngredients,
+        int totalIngredients,
+        List<String> missingIngredients) {
+}
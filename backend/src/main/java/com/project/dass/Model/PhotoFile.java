@@ -0,0 +1,23 @@
+package com.project.dass.Model;
+
+import java.nio.file.Path;
+
+/**
+ * A stored photo file and the metadata needed to serve it (read with a single stat call)
+ *
+ * @param path               The file on disk
+ * @param size               The file size in bytes
+ * @param lastModifiedMillis The file's last-modified time
+ * @param provisional        True when this file stands in for a resized variant that is not ready yet,
+ *                           so the response must not be cached as the final content of its URL
+ */
+public record PhotoFile(Path path, long size, long lastModifiedMillis, boolean provisional) {
+
+    public PhotoFile(Path path, long size, long lastModifiedMillis) {
+        this(path, size, lastModifiedMillis, false);
+    }
+
+    public PhotoFile asProvisional() {
+        return new PhotoFile(path, size, lastModifiedMillis, true);
+    }
+}
@@ -3,6 +3,8 @@ package com.project.dass.Model;
 import jakarta.persistence.*; //JPA?/MySQL
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 //import org.springframework.data.annotation.Id; // MongoDB/JDBC
 
 import java.util.ArrayList;
@@ -10,13 +12,24 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "recipes")
+@Table(name = "recipes", indexes = {
+        // Keyset pagination ανά ημερομηνία (date_created, id)
+        @Index(name = "idx_recipes_date_created_id", columnList = "date_created, id"),
+        // GET /recipes/filter: ισότητες πρώτα (category, difficulty), μετά το range στον χρόνο
+        @Index(name = "idx_recipes_category_difficulty_total_time", columnList = "category, difficulty, total_time_minutes"),
+        @Index(name = "idx_recipes_difficulty_total_time", columnList = "difficulty, total_time_minutes"),
+        @Index(name = "idx_recipes_category_date_created_id", columnList = "category, date_created, id")
+})
 @Getter
 @Setter
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipes")
 public class Recipe {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (στη MySQL πίνακας recipes_seq): 50 ids ανά round trip, ώστε τα inserts να γίνονται σε JDBC batches
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipes_seq")
+    @SequenceGenerator(name = "recipes_seq", sequenceName = "recipes_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -28,18 +41,28 @@ public class Recipe {
     private Integer totalTimeMinutes; // [cite: 10]
     @Column(name = "date_created", columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private Date dateCreated = new Date(); // Αυτόµατη ηµεροµηνία
+    // Optimistic locking & ETag: αυξάνεται σε κάθε αλλαγή της συνταγής
+    // (το DEFAULT 0 γεμίζει τις υπάρχουσες εγγραφές όταν προστεθεί η στήλη)
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL,
             orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipe-collections")
     private List<Ingredient> ingredients = new ArrayList<>();
     // Βήµατα: Μια συνταγή έχει πολλά βήµατα
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL,
             orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipe-collections")
     private List<RecipeStep> steps = new ArrayList<>();
     // Εικόνες Συνταγής (Λίστα από URLs)
     @ElementCollection
     @CollectionTable(name = "recipe_images", joinColumns =
     @JoinColumn(name = "recipe_id"))
     @Column(name = "image_url")
+    // Η θέση κάθε εικόνας: η πρώτη (0) είναι και η εικόνα των summaries
+    @OrderColumn(name = "image_order")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipe-collections")
     private List<String> imageUrls = new ArrayList<>();
 
     public void addStep(RecipeStep step) {
@@ -0,0 +1,15 @@
+package com.project.dass.Model;
+
+import java.util.List;
+
+/**
+ * Αποτέλεσμα του GET /recipes/can-cook: η συνταγή μαζί με το πόσα από τα υλικά της υπάρχουν.
+ *
+ * @param missingIngredients Τα υλικά που πρέπει ακόμη να αγοράσει ο χρήστης
+ */
+public record RecipeCoverage(
+        RecipeSummary recipe,
+        int matchedIngredients,
+        int totalIngredients,
+        List<String> missingIngredients) {
+}
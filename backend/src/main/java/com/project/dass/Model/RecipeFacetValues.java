@@ -0,0 +1,9 @@
+package com.project.dass.Model;
+
+// Οι τιμές μιας συνταγής που μετράνε στα facets
+public record RecipeFacetValues(RecipeCategory category, DifficultyLevel difficulty) {
+
+    public static RecipeFacetValues of(Recipe recipe) {
+        return new RecipeFacetValues(recipe.getCategory(), recipe.getDifficulty());
+    }
+}
@@ -0,0 +1,15 @@
+package com.project.dass.Model;
+
+import java.util.Map;
+
+/**
+ * Πλήθος συνταγών ανά κατηγορία και ανά δυσκολία (GET /recipes/facets).
+ * Όλες οι τιμές των enums υπάρχουν στα maps, ακόμη κι αν το πλήθος τους είναι 0.
+ *
+ * @param total Όλες οι συνταγές (μαζί με όσες δεν έχουν κατηγορία ή δυσκολία)
+ */
+public record RecipeFacets(
+        Map<RecipeCategory, Long> categories,
+        Map<DifficultyLevel, Long> difficulties,
+        long total) {
+}
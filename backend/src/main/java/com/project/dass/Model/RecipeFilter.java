@@ -0,0 +1,19 @@
+package com.project.dass.Model;
+
+import java.util.Date;
+
+/**
+ * Κριτήρια του GET /recipes/filter. Κάθε πεδίο είναι προαιρετικό (null = χωρίς περιορισμό)
+ * και τα κριτήρια που δίνονται συνδυάζονται με AND.
+ *
+ * @param maxTotalTimeMinutes Μέγιστος συνολικός χρόνος (συμπεριλαμβάνεται)
+ * @param maxPrepTimeMinutes  Μέγιστος χρόνος προετοιμασίας (συμπεριλαμβάνεται)
+ * @param createdAfter        Μόνο συνταγές που δημιουργήθηκαν μετά από αυτή τη στιγμή
+ */
+public record RecipeFilter(
+        RecipeCategory category,
+        DifficultyLevel difficulty,
+        Integer maxTotalTimeMinutes,
+        Integer maxPrepTimeMinutes,
+        Date createdAfter) {
+}
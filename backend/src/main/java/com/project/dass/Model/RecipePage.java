@@ -0,0 +1,16 @@
+package com.project.dass.Model;
+
+import java.util.List;
+
+/**
+ * Μία σελίδα αποτελεσμάτων του keyset pagination.
+ *
+ * @param items      Οι εγγραφές της σελίδας
+ * @param nextCursor Το token για την επόμενη σελίδα, ή null αν δεν υπάρχει άλλη
+ */
+public record RecipePage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.project.dass.Model;
+
+// Πηγή των αποτελεσμάτων του GET /recipes/search (property recipes.search.mode)
+public enum RecipeSearchMode {
+    // In-memory inverted index μέσα στην εφαρμογή
+    INDEX,
+    // MySQL FULLTEXT indexes με MATCH ... AGAINST
+    FULLTEXT
+}
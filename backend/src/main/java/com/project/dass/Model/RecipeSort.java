@@ -0,0 +1,9 @@
+package com.project.dass.Model;
+
+// Σειρές ταξινόμησης για το keyset pagination του GET /recipes
+public enum RecipeSort {
+    ID_ASC,
+    ID_DESC,
+    DATE_ASC,
+    DATE_DESC
+}
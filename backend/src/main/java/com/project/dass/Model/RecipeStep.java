@@ -3,15 +3,21 @@ package com.project.dass.Model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 import java.util.ArrayList;
 
 @Data
 @Entity
 @Table(name = "recipe_steps")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipe-steps")
 public class RecipeStep {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (στη MySQL πίνακας recipe_steps_seq): 50 ids ανά round trip, ώστε τα inserts να γίνονται σε JDBC batches
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_steps_seq")
+    @SequenceGenerator(name = "recipe_steps_seq", sequenceName = "recipe_steps_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private Integer stepOrder;
@@ -37,6 +43,7 @@ public class RecipeStep {
     // μοντέλο.
     // Για την εργασία, απλή σύνδεση αρκεί.
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipe-step-collections")
     @JoinTable(name = "step_ingredients", joinColumns = @JoinColumn(name = "step_id"), inverseJoinColumns = @JoinColumn(name = "ingredient_id"))
     private List<Ingredient> ingredients = new ArrayList<>(); // Προσθήκη λίστας υλικών
 
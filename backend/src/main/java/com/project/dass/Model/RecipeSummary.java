@@ -0,0 +1,22 @@
+package com.project.dass.Model;
+
+import java.util.Date;
+
+/**
+ * Ελαφριά προβολή συνταγής για τις λίστες (?view=summary).
+ * Γεμίζει από ένα μόνο SQL query στο RecipeRepository, χωρίς να αγγίζει
+ * τα ingredients, steps και step_ingredients.
+ *
+ * @param firstImage Η πρώτη εικόνα, όπως η imageUrls[0] της συνταγής (ή null αν δεν υπάρχει φωτογραφία)
+ */
+public record RecipeSummary(
+        Long id,
+        String title,
+        RecipeCategory category,
+        DifficultyLevel difficulty,
+        Integer prepTimeMinutes,
+        Integer totalTimeMinutes,
+        Date dateCreated,
+        Long version,
+        String firstImage) {
+}
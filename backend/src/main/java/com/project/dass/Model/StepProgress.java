@@ -0,0 +1,5 @@
+package com.project.dass.Model;
+
+// Η πρόοδος (%) της εκτέλεσης μόλις ολοκληρωθεί το βήμα stepOrder
+public record StepProgress(int stepOrder, double progress) {
+}
@@ -0,0 +1,17 @@
+package com.project.dass.Model;
+
+import java.util.Date;
+
+/**
+ * Χρονόμετρο βήματος μιας εκτέλεσης (απάντηση των endpoints και data του SSE event "timer" όταν λήξει)
+ *
+ * @param durationSeconds Η διάρκεια του χρονομέτρου (από το durationMinutes του βήματος, αν δεν δοθεί άλλη)
+ * @param expiresAt       Πότε λήγει
+ */
+public record StepTimer(
+        long timerId,
+        String sessionId,
+        int stepOrder,
+        long durationSeconds,
+        Date expiresAt) {
+}
@@ -0,0 +1,16 @@
+package com.project.dass.Model;
+
+import java.nio.file.Path;
+
+/**
+ * A photo placed in a recipe's folder by the content-addressed photo store
+ *
+ * @param filename The name in the recipe's folder (what the database stores)
+ * @param path     The file in the recipe's folder
+ * @param size     The size in bytes
+ * @param sha256   The SHA-256 of the content, in hex (its address in the store)
+ * @param recorded False if it could not be saved in the database (the link is removed again, unless the
+ *                 recipe's folder already had this photo under the same name)
+ */
+public record StoredPhoto(String filename, Path path, long size, String sha256, boolean recorded) {
+}
@@ -0,0 +1,11 @@
+package com.project.dass.Model;
+
+/**
+ * Πρόταση για το autocomplete του πεδίου αναζήτησης.
+ *
+ * @param text    Το κείμενο όπως είναι στη βάση (τίτλος συνταγής ή όνομα υλικού)
+ * @param type    Τίτλος ή υλικό
+ * @param recipes Σε πόσες συνταγές εμφανίζεται (η "δημοτικότητα" που καθορίζει τη σειρά)
+ */
+public record Suggestion(String text, SuggestionType type, int recipes) {
+}
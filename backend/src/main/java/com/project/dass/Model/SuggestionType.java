@@ -0,0 +1,7 @@
+package com.project.dass.Model;
+
+// Από πού προέρχεται μια πρόταση του GET /recipes/suggest
+public enum SuggestionType {
+    TITLE,
+    INGREDIENT
+}
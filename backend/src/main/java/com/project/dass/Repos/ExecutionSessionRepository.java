@@ -0,0 +1,23 @@
+package com.project.dass.Repos;
+
+import com.project.dass.Model.ExecutionSession;
+import com.project.dass.Model.ExecutionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+@Repository
+public interface ExecutionSessionRepository extends JpaRepository<ExecutionSession, String> {
+
+    // Τελειωμένες εκτελέσεις που δεν άλλαξαν από το finishedBefore, και όλες όσες δεν άλλαξαν από το updatedBefore
+    @Modifying
+    @Query("DELETE FROM ExecutionSession s WHERE (s.status = :finished AND s.updatedAt < :finishedBefore) " +
+            "OR s.updatedAt < :updatedBefore")
+    int deleteExpired(@Param("finished") ExecutionStatus finished,
+                      @Param("finishedBefore") Date finishedBefore,
+                      @Param("updatedBefore") Date updatedBefore);
+}
@@ -2,18 +2,271 @@ package com.project.dass.Repos;
 
 import com.project.dass.Model.Recipe;
 import com.project.dass.Model.RecipeCategory;
+import com.project.dass.Model.RecipeFacetValues;
+import com.project.dass.Model.RecipeStep;
+import com.project.dass.Model.RecipeSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface RecipeRepository extends JpaRepository<Recipe, Long>
+public interface RecipeRepository extends JpaRepository<Recipe, Long>, RecipeSummaryRepository
 {
-    // Custom query: Βρες συνταγές ανά κατηγορία
+    String RECIPE_QUERY_CACHE_REGION = "recipe-queries";
+
+    // Κενό query space στις native εντολές των φωτογραφιών: χωρίς δηλωμένα spaces το Hibernate αδειάζει όλο
+    // το second-level cache, και με "recipes" όλες τις συνταγές. Ο RecipeServiceImpl ακυρώνει μόνο ό,τι άλλαξε.
+    String PHOTO_QUERY_SPACES = "";
+
+    // Γραμμές ανά round trip στο export (με useCursorFetch=true η MySQL δεν στέλνει όλο το result set μαζί)
+    String EXPORT_FETCH_SIZE = "100";
+
+    // Custom query: Βρες συνταγές ανά κατηγορία (query cache - ακυρώνεται αυτόματα σε κάθε εγγραφή στο recipes)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = RECIPE_QUERY_CACHE_REGION)
+    })
     List<Recipe> findByCategory(RecipeCategory category);
-    // Custom query: Αναζήτηση µε βάση τον τίτλο
-    List<Recipe> findByTitleContainingIgnoreCase(String title);
+
+    // --- KEYSET PAGINATION ---
+    // Κάθε σελίδα ξεκινά από το κλειδί της τελευταίας εγγραφής της προηγούμενης,
+    // οπότε η MySQL κάνει range scan στο index αντί για OFFSET.
+
+    List<Recipe> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Recipe> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
+
+    List<Recipe> findByOrderByDateCreatedAscIdAsc(Limit limit);
+
+    List<Recipe> findByOrderByDateCreatedDescIdDesc(Limit limit);
+
+    @Query("SELECT r FROM Recipe r WHERE r.dateCreated > :date OR (r.dateCreated = :date AND r.id > :id) " +
+            "ORDER BY r.dateCreated ASC, r.id ASC")
+    List<Recipe> findPageByDateAsc(@Param("date") Date date, @Param("id") Long id, Limit limit);
+
+    // Οι συνταγές χωρίς ημερομηνία είναι στο τέλος της φθίνουσας σειράς (NULL = η μικρότερη τιμή, σε MySQL και H2)
+    @Query("SELECT r FROM Recipe r WHERE r.dateCreated < :date OR (r.dateCreated = :date AND r.id < :id) " +
+            "OR r.dateCreated IS NULL ORDER BY r.dateCreated DESC, r.id DESC")
+    List<Recipe> findPageByDateDesc(@Param("date") Date date, @Param("id") Long id, Limit limit);
+
+    // Cursor σε συνταγή χωρίς ημερομηνία: στην αύξουσα σειρά ακολουθούν οι υπόλοιπες null και μετά όλες οι άλλες
+    @Query("SELECT r FROM Recipe r WHERE (r.dateCreated IS NULL AND r.id > :id) OR r.dateCreated IS NOT NULL " +
+            "ORDER BY r.dateCreated ASC, r.id ASC")
+    List<Recipe> findPageByNullDateAsc(@Param("id") Long id, Limit limit);
+
+    @Query("SELECT r FROM Recipe r WHERE r.dateCreated IS NULL AND r.id < :id ORDER BY r.dateCreated DESC, r.id DESC")
+    List<Recipe> findPageByNullDateDesc(@Param("id") Long id, Limit limit);
+
+    // --- SUMMARY PROJECTIONS (?view=summary) ---
+    // Constructor expression: ένα query ανά σελίδα, χωρίς lazy loads στα child tables.
+    // Η "πρώτη" εικόνα είναι αυτή στη θέση 0 του recipe_images, ίδια με την imageUrls[0] της λεπτομέρειας
+    // (το MIN μόνο εξασφαλίζει μία τιμή στο subquery).
+
+    String SUMMARY_SELECT = "SELECT new com.project.dass.Model.RecipeSummary(" +
+            "r.id, r.title, r.category, r.difficulty, r.prepTimeMinutes, r.totalTimeMinutes, r.dateCreated, r.version, " +
+            "(SELECT MIN(img) FROM Recipe r2 JOIN r2.imageUrls img WHERE r2.id = r.id AND INDEX(img) = 0)) " +
+            "FROM Recipe r ";
+
+    @Query(SUMMARY_SELECT + "WHERE r.category = :category ORDER BY r.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = RECIPE_QUERY_CACHE_REGION)
+    })
+    List<RecipeSummary> findSummariesByCategory(@Param("category") RecipeCategory category);
+
+    @Query(SUMMARY_SELECT + "WHERE r.id > :id ORDER BY r.id ASC")
+    List<RecipeSummary> findSummaryPageByIdAsc(@Param("id") Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE r.id < :id ORDER BY r.id DESC")
+    List<RecipeSummary> findSummaryPageByIdDesc(@Param("id") Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "ORDER BY r.dateCreated ASC, r.id ASC")
+    List<RecipeSummary> findSummaryFirstPageByDateAsc(Limit limit);
+
+    @Query(SUMMARY_SELECT + "ORDER BY r.dateCreated DESC, r.id DESC")
+    List<RecipeSummary> findSummaryFirstPageByDateDesc(Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE r.dateCreated > :date OR (r.dateCreated = :date AND r.id > :id) " +
+            "ORDER BY r.dateCreated ASC, r.id ASC")
+    List<RecipeSummary> findSummaryPageByDateAsc(@Param("date") Date date, @Param("id") Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE r.dateCreated < :date OR (r.dateCreated = :date AND r.id < :id) " +
+            "OR r.dateCreated IS NULL ORDER BY r.dateCreated DESC, r.id DESC")
+    List<RecipeSummary> findSummaryPageByDateDesc(@Param("date") Date date, @Param("id") Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE (r.dateCreated IS NULL AND r.id > :id) OR r.dateCreated IS NOT NULL " +
+            "ORDER BY r.dateCreated ASC, r.id ASC")
+    List<RecipeSummary> findSummaryPageByNullDateAsc(@Param("id") Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE r.dateCreated IS NULL AND r.id < :id ORDER BY r.dateCreated DESC, r.id DESC")
+    List<RecipeSummary> findSummaryPageByNullDateDesc(@Param("id") Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE r.id IN :ids")
+    List<RecipeSummary> findSummariesByIdIn(@Param("ids") List<Long> ids);
+
+    // --- SEARCH ---
+
+    // Αναζήτηση στον τίτλο με LIKE (full scan), μόνο μέχρι να χτιστεί το in-memory index
+    @Query("SELECT r.id FROM Recipe r WHERE LOWER(r.title) LIKE LOWER(CONCAT('%', :title, '%')) ORDER BY r.id")
+    List<Long> findIdsByTitleContaining(@Param("title") String title, Limit limit);
+
+    // recipes.search.mode=fulltext: MATCH ... AGAINST στα FULLTEXT indexes (βλ. FullTextIndexInitializer).
+    // Κάθε πίνακας δίνει το δικό του relevance με βάρος (τίτλος > υλικό > βήμα) και αθροίζουμε ανά συνταγή.
+    @Query(value = "SELECT m.recipe_id FROM (" +
+            "SELECT r.id AS recipe_id, MATCH(r.title) AGAINST (:query IN NATURAL LANGUAGE MODE) * 3 AS score " +
+            "FROM recipes r WHERE MATCH(r.title) AGAINST (:query IN NATURAL LANGUAGE MODE) " +
+            "UNION ALL " +
+            "SELECT i.recipe_id, MATCH(i.name) AGAINST (:query IN NATURAL LANGUAGE MODE) * 2 " +
+            "FROM ingredients i WHERE MATCH(i.name) AGAINST (:query IN NATURAL LANGUAGE MODE) " +
+            "UNION ALL " +
+            "SELECT s.recipe_id, MATCH(s.description) AGAINST (:query IN NATURAL LANGUAGE MODE) " +
+            "FROM recipe_steps s WHERE MATCH(s.description) AGAINST (:query IN NATURAL LANGUAGE MODE)" +
+            ") m GROUP BY m.recipe_id ORDER BY SUM(m.score) DESC, m.recipe_id LIMIT :limit OFFSET :offset",
+            nativeQuery = true)
+    List<Long> searchIdsFullText(@Param("query") String query, @Param("limit") int limit, @Param("offset") int offset);
+
+    // Μόνο τα πεδία κειμένου για το χτίσιμο του in-memory index (id + κείμενο ανά γραμμή)
+    @Query("SELECT r.id, r.title FROM Recipe r")
+    List<Object[]> findAllTitles();
+
+    @Query("SELECT i.recipe.id, i.name FROM Ingredient i")
+    List<Object[]> findAllIngredientNames();
+
+    // Όλα τα υλικά των συνταγών που έχουν κάποιο από τα ονόματα (πεζά), μόνο μέχρι να χτιστεί το in-memory index
+    @Query("SELECT i.recipe.id, i.name FROM Ingredient i WHERE i.recipe.id IN " +
+            "(SELECT m.recipe.id FROM Ingredient m WHERE LOWER(TRIM(m.name)) IN :names)")
+    List<Object[]> findIngredientNamesOfRecipesUsing(@Param("names") Collection<String> names);
+
+    @Query("SELECT s.recipe.id, s.title, s.description FROM RecipeStep s")
+    List<Object[]> findAllStepTexts();
+
+    // Autocomplete με LIKE στην αρχή κάθε λέξης του τίτλου/ονόματος (πλήθος συνταγών ανά κείμενο),
+    // μόνο μέχρι να χτιστεί το in-memory suggest index
+    @Query("SELECT r.title, COUNT(r) FROM Recipe r WHERE LOWER(r.title) LIKE CONCAT(LOWER(:prefix), '%') " +
+            "OR LOWER(r.title) LIKE CONCAT('% ', LOWER(:prefix), '%') GROUP BY r.title ORDER BY COUNT(r) DESC, r.title")
+    List<Object[]> countTitlesStartingWith(@Param("prefix") String prefix, Limit limit);
+
+    @Query("SELECT i.name, COUNT(DISTINCT i.recipe.id) FROM Ingredient i WHERE LOWER(i.name) LIKE CONCAT(LOWER(:prefix), '%') " +
+            "OR LOWER(i.name) LIKE CONCAT('% ', LOWER(:prefix), '%') " +
+            "GROUP BY i.name ORDER BY COUNT(DISTINCT i.recipe.id) DESC, i.name")
+    List<Object[]> countIngredientNamesStartingWith(@Param("prefix") String prefix, Limit limit);
+
+    // --- FACETS ---
+
+    @Query("SELECT r.category, r.difficulty, COUNT(r) FROM Recipe r GROUP BY r.category, r.difficulty")
+    List<Object[]> countByCategoryAndDifficulty();
+
+    // Οι τιμές όπως είναι στη βάση: χωρίς flush, ώστε να μη βλέπουμε αλλαγές του τρέχοντος transaction
+    @Query("SELECT new com.project.dass.Model.RecipeFacetValues(r.category, r.difficulty) FROM Recipe r WHERE r.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    Optional<RecipeFacetValues> findFacetValuesById(@Param("id") Long id);
+
+    // Μόνο το version, για τα ETag / If-None-Match χωρίς φόρτωμα της συνταγής
+    @Query("SELECT r.version FROM Recipe r WHERE r.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // --- PROGRESS (GET /recipes/{id}/progress) ---
+
+    // Μία γραμμή ανά βήμα (totalTimeMinutes, stepOrder, durationMinutes), ή μία με null βήμα αν δεν έχει βήματα
+    @Query("SELECT r.totalTimeMinutes, s.stepOrder, s.durationMinutes FROM Recipe r LEFT JOIN r.steps s " +
+            "WHERE r.id = :id ORDER BY s.stepOrder")
+    List<Object[]> findProgressRowsById(@Param("id") Long id);
+
+    // --- PHOTOS (ονόματα αρχείων) ---
+    // Μία μικρή εντολή ανά αλλαγή, αντί για saveRecipe όλου του graph. Το version αυξάνεται πρώτο:
+    // το UPDATE κλειδώνει τη γραμμή της συνταγής ως το commit, οπότε οι αλλαγές στην ίδια συνταγή γίνονται μία-μία.
+
+    @Modifying
+    @Query(value = "UPDATE recipes SET version = version + 1 WHERE id = :id", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = PHOTO_QUERY_SPACES))
+    int incrementVersion(@Param("id") Long id);
+
+    // 0 αν το βήμα δεν υπάρχει ή δεν ανήκει στη συνταγή
+    @Modifying
+    @Query(value = "UPDATE recipes SET version = version + 1 WHERE id = :id " +
+            "AND EXISTS (SELECT 1 FROM recipe_steps s WHERE s.id = :stepId AND s.recipe_id = :id)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = PHOTO_QUERY_SPACES))
+    int incrementVersionWithStep(@Param("id") Long id, @Param("stepId") Long stepId);
+
+    // Μόνο αν δεν υπάρχει ήδη (το ίδιο αρχείο ξανά στην ίδια συνταγή), στο τέλος της λίστας
+    @Modifying
+    @Query(value = "INSERT INTO recipe_images (recipe_id, image_url, image_order) SELECT r.id, :imageUrl, " +
+            "(SELECT COALESCE(MAX(o.image_order) + 1, 0) FROM recipe_images o WHERE o.recipe_id = :id) FROM recipes r " +
+            "WHERE r.id = :id AND NOT EXISTS " +
+            "(SELECT 1 FROM recipe_images i WHERE i.recipe_id = :id AND i.image_url = :imageUrl)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = PHOTO_QUERY_SPACES))
+    int insertImageUrl(@Param("id") Long id, @Param("imageUrl") String imageUrl);
+
+    @Query(value = "SELECT image_order FROM recipe_images WHERE recipe_id = :id AND image_url = :imageUrl " +
+            "ORDER BY image_order DESC", nativeQuery = true)
+    List<Integer> findImageOrders(@Param("id") Long id, @Param("imageUrl") String imageUrl);
+
+    // Κλείνει το κενό που άφησε μια σβησμένη εικόνα (με λίστα που έχει κενά το Hibernate θα έβαζε null).
+    // Με αύξουσα σειρά κάθε γραμμή μετακινείται σε θέση που έχει ήδη αδειάσει.
+    @Modifying
+    @Query(value = "UPDATE recipe_images SET image_order = image_order - 1 WHERE recipe_id = :id " +
+            "AND image_order > :imageOrder ORDER BY image_order", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = PHOTO_QUERY_SPACES))
+    int shiftImagesAfter(@Param("id") Long id, @Param("imageOrder") int imageOrder);
+
+    @Modifying
+    @Query(value = "DELETE FROM recipe_images WHERE recipe_id = :id AND image_url = :imageUrl", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = PHOTO_QUERY_SPACES))
+    int deleteImageUrl(@Param("id") Long id, @Param("imageUrl") String imageUrl);
+
+    @Modifying
+    @Query(value = "DELETE FROM recipe_images WHERE recipe_id = :id", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = PHOTO_QUERY_SPACES))
+    int deleteImageUrls(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "UPDATE recipe_steps SET image_url = :imageUrl WHERE id = :stepId", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = PHOTO_QUERY_SPACES))
+    int updateStepImageUrl(@Param("stepId") Long stepId, @Param("imageUrl") String imageUrl);
+
+    @Query("SELECT s.imageUrl FROM RecipeStep s WHERE s.id = :stepId")
+    Optional<String> findStepImageUrl(@Param("stepId") Long stepId);
+
+    @Query("SELECT s.id FROM RecipeStep s WHERE s.recipe.id = :id AND s.imageUrl = :imageUrl")
+    List<Long> findStepIdsByImageUrl(@Param("id") Long id, @Param("imageUrl") String imageUrl);
+
+    // --- EXPORT (GET /recipes/export) ---
+
+    // Stream με fetch size: οι συνταγές διαβάζονται σταδιακά, χωρίς να μπουν όλες σε μια List
+    @Query("SELECT r FROM Recipe r ORDER BY r.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Recipe> streamAllForExport();
+
+    // --- FULL GRAPH LOADING (GET /recipes/{id}) ---
+    // Τα ingredients, steps και imageUrls είναι bags, οπότε δεν γίνεται fetch join όλων μαζί
+    // (MultipleBagFetchException). Φορτώνουμε ένα collection ανά query μέσα στο ίδιο
+    // persistence context: 4 queries συνολικά, ανεξάρτητα από τον αριθμό των βημάτων.
+
+    @EntityGraph(attributePaths = "ingredients")
+    Optional<Recipe> findWithIngredientsById(Long id);
+
+    @EntityGraph(attributePaths = "steps")
+    Optional<Recipe> findWithStepsById(Long id);
+
+    @EntityGraph(attributePaths = "imageUrls")
+    Optional<Recipe> findWithImageUrlsById(Long id);
+
+    @Query("SELECT DISTINCT s FROM RecipeStep s LEFT JOIN FETCH s.ingredients WHERE s.recipe.id = :recipeId")
+    List<RecipeStep> findStepsWithIngredientsByRecipeId(@Param("recipeId") Long recipeId);
 }
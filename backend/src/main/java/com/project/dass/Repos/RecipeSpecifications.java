@@ -0,0 +1,84 @@
+package com.project.dass.Repos;
+
+import com.project.dass.Model.DifficultyLevel;
+import com.project.dass.Model.Recipe;
+import com.project.dass.Model.RecipeCategory;
+import com.project.dass.Model.RecipeFilter;
+import com.project.dass.Model.RecipeSort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Specifications για το GET /recipes/filter (βλ. τα composite indexes στο Recipe)
+public final class RecipeSpecifications {
+
+    private RecipeSpecifications() {
+    }
+
+    // Συνδυάζει με AND μόνο τα κριτήρια που δόθηκαν
+    public static Specification<Recipe> matching(RecipeFilter filter) {
+        List<Specification<Recipe>> specs = new ArrayList<>();
+        if (filter.category() != null) {
+            specs.add(hasCategory(filter.category()));
+        }
+        if (filter.difficulty() != null) {
+            specs.add(hasDifficulty(filter.difficulty()));
+        }
+        if (filter.maxTotalTimeMinutes() != null) {
+            specs.add(totalTimeAtMost(filter.maxTotalTimeMinutes()));
+        }
+        if (filter.maxPrepTimeMinutes() != null) {
+            specs.add(prepTimeAtMost(filter.maxPrepTimeMinutes()));
+        }
+        if (filter.createdAfter() != null) {
+            specs.add(createdAfter(filter.createdAfter()));
+        }
+        return specs.isEmpty() ? Specification.unrestricted() : Specification.allOf(specs);
+    }
+
+    public static Specification<Recipe> hasCategory(RecipeCategory category) {
+        return (recipe, query, cb) -> cb.equal(recipe.get("category"), category);
+    }
+
+    public static Specification<Recipe> hasDifficulty(DifficultyLevel difficulty) {
+        return (recipe, query, cb) -> cb.equal(recipe.get("difficulty"), difficulty);
+    }
+
+    public static Specification<Recipe> totalTimeAtMost(int minutes) {
+        return (recipe, query, cb) -> cb.le(recipe.get("totalTimeMinutes"), minutes);
+    }
+
+    public static Specification<Recipe> prepTimeAtMost(int minutes) {
+        return (recipe, query, cb) -> cb.le(recipe.get("prepTimeMinutes"), minutes);
+    }
+
+    public static Specification<Recipe> createdAfter(Date date) {
+        return (recipe, query, cb) -> cb.greaterThan(recipe.get("dateCreated"), date);
+    }
+
+    /**
+     * Keyset συνθήκη: οι εγγραφές μετά το κλειδί (dateCreated, id) της τελευταίας της προηγούμενης σελίδας.
+     * Ίδια λογική με τα findPageByDate* / findByIdGreaterThan* του RecipeRepository.
+     */
+    public static Specification<Recipe> after(RecipeSort sort, Long lastId, Date lastDate) {
+        return (recipe, query, cb) -> switch (sort) {
+            case ID_ASC -> cb.gt(recipe.get("id"), lastId);
+            case ID_DESC -> cb.lt(recipe.get("id"), lastId);
+            // Όπως στα findPageBy*Date* του RecipeRepository: NULL ημερομηνία = η μικρότερη τιμή
+            case DATE_ASC -> lastDate == null
+                    ? cb.or(cb.and(cb.isNull(recipe.get("dateCreated")), cb.gt(recipe.get("id"), lastId)),
+                            cb.isNotNull(recipe.get("dateCreated")))
+                    : cb.or(
+                            cb.greaterThan(recipe.get("dateCreated"), lastDate),
+                            cb.and(cb.equal(recipe.get("dateCreated"), lastDate), cb.gt(recipe.get("id"), lastId)));
+            case DATE_DESC -> lastDate == null
+                    ? cb.and(cb.isNull(recipe.get("dateCreated")), cb.lt(recipe.get("id"), lastId))
+                    : cb.or(
+                            cb.lessThan(recipe.get("dateCreated"), lastDate),
+                            cb.and(cb.equal(recipe.get("dateCreated"), lastDate), cb.lt(recipe.get("id"), lastId)),
+                            cb.isNull(recipe.get("dateCreated")));
+        };
+    }
+}
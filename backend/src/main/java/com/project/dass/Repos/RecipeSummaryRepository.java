@@ -0,0 +1,21 @@
+package com.project.dass.Repos;
+
+import com.project.dass.Model.Recipe;
+import com.project.dass.Model.RecipeSort;
+import com.project.dass.Model.RecipeSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Custom fragment του RecipeRepository: summaries με δυναμικά κριτήρια (Criteria API)
+public interface RecipeSummaryRepository {
+
+    /**
+     * Όπως τα findSummary* του RecipeRepository, αλλά με οποιοδήποτε Specification ως WHERE.
+     * @param spec  Τα κριτήρια (μαζί με την keyset συνθήκη για τις επόμενες σελίδες)
+     * @param sort  Η σειρά ταξινόμησης
+     * @param limit Ο μέγιστος αριθμός γραμμών
+     */
+    List<RecipeSummary> findSummaries(Specification<Recipe> spec, RecipeSort sort, Limit limit);
+}
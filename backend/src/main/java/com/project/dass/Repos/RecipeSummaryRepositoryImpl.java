@@ -0,0 +1,65 @@
+package com.project.dass.Repos;
+
+import com.project.dass.Model.Recipe;
+import com.project.dass.Model.RecipeSort;
+import com.project.dass.Model.RecipeSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.ListJoin;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public class RecipeSummaryRepositoryImpl implements RecipeSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<RecipeSummary> findSummaries(Specification<Recipe> spec, RecipeSort sort, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<RecipeSummary> query = cb.createQuery(RecipeSummary.class);
+        Root<Recipe> recipe = query.from(Recipe.class);
+
+        // Ίδια "πρώτη" εικόνα με το SUMMARY_SELECT: αυτή στη θέση 0 του recipe_images
+        Subquery<String> firstImage = query.subquery(String.class);
+        Root<Recipe> imageOwner = firstImage.from(Recipe.class);
+        ListJoin<Recipe, String> image = imageOwner.joinList("imageUrls");
+        firstImage.select(cb.least(image)).where(cb.equal(imageOwner.get("id"), recipe.get("id")),
+                cb.equal(image.index(), 0));
+
+        query.select(cb.construct(RecipeSummary.class,
+                recipe.get("id"), recipe.get("title"), recipe.get("category"), recipe.get("difficulty"),
+                recipe.get("prepTimeMinutes"), recipe.get("totalTimeMinutes"), recipe.get("dateCreated"),
+                recipe.get("version"), firstImage));
+
+        Predicate predicate = spec.toPredicate(recipe, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(orderBy(sort, recipe, cb));
+
+        TypedQuery<RecipeSummary> typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+        return typedQuery.getResultList();
+    }
+
+    private static List<Order> orderBy(RecipeSort sort, Root<Recipe> recipe, CriteriaBuilder cb) {
+        return switch (sort) {
+            case ID_ASC -> List.of(cb.asc(recipe.get("id")));
+            case ID_DESC -> List.of(cb.desc(recipe.get("id")));
+            case DATE_ASC -> List.of(cb.asc(recipe.get("dateCreated")), cb.asc(recipe.get("id")));
+            case DATE_DESC -> List.of(cb.desc(recipe.get("dateCreated")), cb.desc(recipe.get("id")));
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.dass.Service;
+
+import com.project.dass.Model.CacheRegionStats;
+
+import java.util.List;
+
+public interface CacheStatsService {
+
+    /**
+     * Hit/miss/put/eviction counters για κάθε region του second-level και του query cache
+     */
+    List<CacheRegionStats> getSecondLevelCacheStats();
+}
@@ -0,0 +1,63 @@
+package com.project.dass.Service;
+
+import com.project.dass.Model.ExecutionSnapshot;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
+
+// Εκτελέσεις συνταγών στον server: η κατάσταση ζει στη μνήμη και οι αλλαγές στέλνονται με Server-Sent Events
+public interface ExecutionSessionService {
+
+    /**
+     * Ξεκινά μια νέα εκτέλεση στο πρώτο βήμα
+     * @param recipeId Το ID της συνταγής
+     * @return Η αρχική κατάσταση, ή empty αν η συνταγή δεν υπάρχει
+     */
+    Optional<ExecutionSnapshot> start(Long recipeId);
+
+    /**
+     * @param sessionId Το ID της εκτέλεσης
+     * @return Η τρέχουσα κατάσταση, ή empty αν η εκτέλεση δεν υπάρχει
+     */
+    Optional<ExecutionSnapshot> get(String sessionId);
+
+    /**
+     * Ολοκληρώνει το τρέχον βήμα (μετά το τελευταίο η εκτέλεση γίνεται FINISHED)
+     * @param sessionId Το ID της εκτέλεσης
+     * @return Η νέα κατάσταση, ή empty αν η εκτέλεση δεν υπάρχει
+     * @throws IllegalStateException αν η εκτέλεση είναι σε παύση ή έχει ολοκληρωθεί
+     */
+    Optional<ExecutionSnapshot> advance(String sessionId);
+
+    /**
+     * Σταματά το χρονόμετρο της εκτέλεσης (χωρίς αποτέλεσμα αν είναι ήδη σε παύση)
+     * @param sessionId Το ID της εκτέλεσης
+     * @return Η νέα κατάσταση, ή empty αν η εκτέλεση δεν υπάρχει
+     * @throws IllegalStateException αν η εκτέλεση έχει ολοκληρωθεί
+     */
+    Optional<ExecutionSnapshot> pause(String sessionId);
+
+    /**
+     * Συνεχίζει μια εκτέλεση σε παύση (χωρίς αποτέλεσμα αν τρέχει ήδη)
+     * @param sessionId Το ID της εκτέλεσης
+     * @return Η νέα κατάσταση, ή empty αν η εκτέλεση δεν υπάρχει
+     * @throws IllegalStateException αν η εκτέλεση έχει ολοκληρωθεί
+     */
+    Optional<ExecutionSnapshot> resume(String sessionId);
+
+    /**
+     * Ανοίγει ένα SSE stream: στέλνει αμέσως την τρέχουσα κατάσταση και μετά ένα event σε κάθε αλλαγή
+     * @param sessionId Το ID της εκτέλεσης
+     * @return Ο emitter, ή empty αν η εκτέλεση δεν υπάρχει
+     */
+    Optional<SseEmitter> subscribe(String sessionId);
+
+    /**
+     * Στέλνει ένα event στους ανοιχτούς SSE clients μιας εκτέλεσης (π.χ. τη λήξη ενός χρονομέτρου)
+     * @param sessionId Το ID της εκτέλεσης
+     * @param eventName Το όνομα του event
+     * @param data      Το περιεχόμενο (ως JSON)
+     * @return false αν η εκτέλεση δεν είναι στη μνήμη (και άρα δεν έχει ανοιχτούς clients)
+     */
+    boolean publish(String sessionId, String eventName, Object data);
+}
@@ -0,0 +1,36 @@
+package com.project.dass.Service;
+
+import com.project.dass.Model.IngredientMatch;
+import com.project.dass.Model.Recipe;
+
+import java.util.Collection;
+import java.util.List;
+
+// In-memory index με τα υλικά κάθε συνταγής, για το "τι μπορώ να μαγειρέψω"
+public interface IngredientMatchIndex {
+
+    /**
+     * Οι συνταγές που περιέχουν τουλάχιστον ένα από τα υλικά, πρώτα όσες δεν τους λείπει κανένα,
+     * μετά όσες τους λείπει ένα κ.ο.κ.
+     *
+     * @param ingredients Τα υλικά που έχει ο χρήστης (χωρίς διάκριση πεζών/κεφαλαίων και τόνων)
+     * @param maxMissing  Ο μέγιστος αριθμός υλικών που επιτρέπεται να λείπουν (null = χωρίς όριο)
+     * @param limit       Ο μέγιστος αριθμός αποτελεσμάτων
+     */
+    List<IngredientMatch> match(Collection<String> ingredients, Integer maxMissing, int limit);
+
+    /**
+     * Προσθέτει ή ενημερώνει μια συνταγή. Μέσα σε transaction η αλλαγή εφαρμόζεται μετά το commit.
+     * @param recipe Η συνταγή με αρχικοποιημένα ingredients
+     */
+    void index(Recipe recipe);
+
+    /**
+     * Αφαιρεί μια συνταγή. Μέσα σε transaction η αλλαγή εφαρμόζεται μετά το commit.
+     * @param recipeId Το ID της συνταγής
+     */
+    void remove(Long recipeId);
+
+    // Ξαναχτίζει ολόκληρο το index από τη βάση
+    void rebuild();
+}
@@ -1,8 +1,9 @@
 package com.project.dass.Service;
 
-import org.springframework.core.io.Resource;
+import com.project.dass.Model.PhotoFile;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -16,14 +17,25 @@ public interface PhotoService {
      * @return The filename of the saved photo, or empty if upload failed
      */
     Optional<String> uploadPhoto(Map<String, Long> ids, MultipartFile file);
+
+    /**
+     * Upload a photo sent as the raw request body: it is written once, straight into the photo folder,
+     * and no transaction is held while it arrives
+     * @param ids Map containing "recipeId" (and optionally "stepId" for step photos)
+     * @param content The photo bytes; the image type is detected from them
+     * @return The filename of the saved photo, or empty if upload failed
+     */
+    Optional<String> uploadPhoto(Map<String, Long> ids, InputStream content);
     
     /**
-     * Get a photo file as a resource
+     * Get a photo file with its size and last-modified time
      * @param recipeId The ID of the recipe (to determine the folder)
      * @param filename The name of the photo file
-     * @return The resource if found, empty otherwise
+     * @param width The display width in pixels to serve a resized variant for, or null for the original
+     * @return The photo file (the original while the variant is not ready) if found, empty otherwise
+     * @throws IllegalArgumentException if the width is not positive
      */
-    Optional<Resource> getPhoto(Long recipeId, String filename);
+    Optional<PhotoFile> getPhoto(Long recipeId, String filename, Integer width);
     
     /**
      * Get all photo filenames for a recipe or recipe step
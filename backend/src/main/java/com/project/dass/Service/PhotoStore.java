@@ -0,0 +1,77 @@
+package com.project.dass.Service;
+
+import com.project.dass.Model.StoredPhoto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Content-addressed storage of photo files: each distinct content is stored once, keyed by its SHA-256,
+ * and a recipe's folder {@code photos/{recipeId}/} holds hard links to it under the filenames the database stores
+ */
+public interface PhotoStore {
+
+    /**
+     * Store a photo (validated and hashed while it is streamed), link it into the recipe's folder and record it.
+     * Recording runs under the same per-content lock as linking and deleting, so when it fails the link this
+     * upload created is removed before a concurrent upload of the same bytes can find and record it.
+     * @param recipeId The recipe whose folder gets the photo
+     * @param prefix Prepended to the filename, e.g. "{stepId}_" for step photos
+     * @param content The photo bytes
+     * @param maxBytes The largest accepted photo
+     * @param record Saves the photo's filename in the database; false (or an exception) if it could not
+     * @return The stored photo (see {@link StoredPhoto#recorded()}), or empty if the content is not a supported
+     * image or is larger than maxBytes
+     */
+    Optional<StoredPhoto> store(Long recipeId, String prefix, InputStream content, long maxBytes,
+                                Predicate<StoredPhoto> record) throws IOException;
+
+    /**
+     * The file of a photo in a recipe's folder (which may not exist)
+     * @param recipeId The ID of the recipe
+     * @param filename The name of the photo file
+     * @return The path of the photo
+     */
+    Path locate(Long recipeId, String filename);
+
+    /**
+     * The stored content behind a photo, shared by every recipe and step with the same bytes
+     * (its resized variants are generated and looked up next to it).
+     * A photo named before content addressing is its own canonical file.
+     * @param photo A photo in a recipe's folder
+     * @return The canonical file of the photo
+     */
+    Path canonical(Path photo);
+
+    /**
+     * Remove a photo from a recipe's folder (and the folder, once empty); its content and variants are deleted
+     * once no photo uses them
+     * @param recipeId The ID of the recipe
+     * @param filename The name of the photo file
+     * @return false if the recipe's folder has no such photo
+     */
+    boolean delete(Long recipeId, String filename) throws IOException;
+
+    /**
+     * Remove a recipe's folder with every photo in it
+     * @param recipeId The ID of the recipe
+     */
+    void deleteAll(Long recipeId) throws IOException;
+
+    /**
+     * Move photos stored before content addressing into the store, keeping their names (safe to run again)
+     * @return The number of photos moved
+     */
+    int migrate() throws IOException;
+
+    /**
+     * Remove the temporary files of uploads that never finished (left behind when the process was killed mid-upload)
+     * @param before Only files last modified before this are removed, so uploads in progress are kept
+     * @return The number of files removed
+     */
+    int sweepUploads(Instant before) throws IOException;
+}
@@ -0,0 +1,34 @@
+package com.project.dass.Service;
+
+import com.project.dass.Model.PhotoFile;
+
+import java.nio.file.Path;
+
+/**
+ * Resized variants of uploaded photos: a few fixed widths, generated in the background
+ * and stored next to the original
+ */
+public interface PhotoVariantService {
+
+    /**
+     * Queue the generation of a photo's variants; returns immediately
+     * @param original The stored original photo
+     */
+    void generateVariants(Path original);
+
+    /**
+     * Choose the file to serve for a requested width: the smallest variant at least that wide.
+     * While that variant is not ready, the original is returned marked provisional (and generation is queued).
+     * @param original The stored original photo
+     * @param width The requested width in pixels, or null for the original
+     * @return The variant, or the original if no variant applies or it is not ready yet
+     * @throws IllegalArgumentException if the width is not positive
+     */
+    PhotoFile resolve(PhotoFile original, Integer width);
+
+    /**
+     * Delete a photo's variants (the caller deletes the original)
+     * @param original The original photo
+     */
+    void deleteVariants(Path original);
+}
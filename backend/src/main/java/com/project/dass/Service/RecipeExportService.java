@@ -0,0 +1,16 @@
+package com.project.dass.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface RecipeExportService {
+
+    /**
+     * Γράφει όλες τις συνταγές ως NDJSON (ένα JSON object ανά γραμμή, ίδιο με το GET /recipes/{id}).
+     * Η μνήμη μένει σταθερή ανεξάρτητα από το μέγεθος του καταλόγου.
+     *
+     * @param out Πού γράφεται το export (δεν κλείνει)
+     * @return Πόσες συνταγές γράφτηκαν
+     */
+    long exportNdjson(OutputStream out) throws IOException;
+}
@@ -0,0 +1,21 @@
+package com.project.dass.Service;
+
+import com.project.dass.Model.RecipeFacetValues;
+import com.project.dass.Model.RecipeFacets;
+
+// Μετρητές ανά κατηγορία/δυσκολία στη μνήμη, ώστε τα facets να μη χτυπούν τη βάση
+public interface RecipeFacetCounter {
+
+    // Τα τρέχοντα πλήθη, σε O(1)
+    RecipeFacets getFacets();
+
+    /**
+     * Καταγράφει μια αλλαγή συνταγής. Μέσα σε transaction εφαρμόζεται μετά το commit.
+     * @param before Οι τιμές πριν την αλλαγή (null για νέα συνταγή)
+     * @param after  Οι τιμές μετά την αλλαγή (null για διαγραφή)
+     */
+    void recordChange(RecipeFacetValues before, RecipeFacetValues after);
+
+    // Ξαναγεμίζει τους μετρητές από τη βάση με ένα GROUP BY
+    void reseed();
+}
@@ -0,0 +1,19 @@
+package com.project.dass.Service;
+
+import com.project.dass.Model.ImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface RecipeImportService {
+
+    /**
+     * Εισάγει συνταγές από NDJSON (μορφή του GET /recipes/export) ως νέες συνταγές.
+     * Κάθε chunk αποθηκεύεται σε δικό του transaction με batched inserts. Ένα λάθος record
+     * καταγράφεται στο report χωρίς να σταματά το υπόλοιπο import.
+     *
+     * @param in        Το NDJSON (δεν κλείνει)
+     * @param chunkSize Συνταγές ανά transaction (null για το default)
+     */
+    ImportReport importNdjson(InputStream in, Integer chunkSize) throws IOException;
+}
@@ -0,0 +1,39 @@
+package com.project.dass.Service;
+
+import com.project.dass.Model.StepProgress;
+
+import java.util.List;
+import java.util.Optional;
+
+// Πρόοδος εκτέλεσης από cached αθροιστικές διάρκειες βημάτων (χωρίς φόρτωμα της συνταγής σε κάθε βήμα)
+public interface RecipeProgressService {
+
+    /**
+     * Η πρόοδος (%) αφού ολοκληρωθούν όλα τα βήματα με stepOrder έως {@code completedStepOrder}
+     * @param recipeId           Το ID της συνταγής
+     * @param completedStepOrder Το stepOrder του τελευταίου ολοκληρωμένου βήματος
+     * @return Η πρόοδος (0-100), ή empty αν η συνταγή δεν υπάρχει
+     */
+    Optional<Double> getProgress(Long recipeId, int completedStepOrder);
+
+    /**
+     * Η πρόοδος μετά από κάθε βήμα, ώστε ο client να μη ρωτά ξανά σε κάθε βήμα
+     * @param recipeId Το ID της συνταγής
+     * @return Ένα στοιχείο ανά διαφορετικό stepOrder, σε αύξουσα σειρά, ή empty αν η συνταγή δεν υπάρχει
+     */
+    Optional<List<StepProgress>> getProgressCurve(Long recipeId);
+
+    /**
+     * Η διάρκεια ενός βήματος από τον ίδιο cached πίνακα (π.χ. για τα χρονόμετρα βημάτων)
+     * @param recipeId  Το ID της συνταγής
+     * @param stepOrder Το stepOrder του βήματος
+     * @return Η διάρκεια σε λεπτά, ή empty αν η συνταγή ή το βήμα δεν υπάρχει
+     */
+    Optional<Long> getStepMinutes(Long recipeId, int stepOrder);
+
+    /**
+     * Αφαιρεί τη συνταγή από το cache - καλείται σε κάθε εγγραφή που αλλάζει βήματα ή συνολικό χρόνο
+     * @param recipeId Το ID της συνταγής
+     */
+    void invalidate(Long recipeId);
+}
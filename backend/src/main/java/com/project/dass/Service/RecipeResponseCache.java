@@ -0,0 +1,32 @@
+package com.project.dass.Service;
+
+import com.project.dass.Model.CachedRecipeJson;
+import com.project.dass.Model.Recipe;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Cache με το serialized JSON του GET /recipes/{id}, ώστε τα hits να μη φορτώνουν καθόλου entities
+public interface RecipeResponseCache {
+
+    /**
+     * Επιστρέφει το cached JSON ή φορτώνει τη συνταγή, την κάνει serialize και την αποθηκεύει
+     * @param id     Το ID της συνταγής
+     * @param loader Φορτώνει ολόκληρο το graph της συνταγής σε περίπτωση miss
+     * @return Το JSON, ή empty αν η συνταγή δεν υπάρχει
+     */
+    Optional<CachedRecipeJson> getOrLoad(Long id, Supplier<Optional<Recipe>> loader);
+
+    /**
+     * Το version της cached συνταγής, χωρίς query στη βάση
+     * @param id Το ID της συνταγής
+     * @return Το version, ή empty αν η συνταγή δεν είναι στο cache
+     */
+    Optional<Long> getCachedVersion(Long id);
+
+    /**
+     * Αφαιρεί τη συνταγή από το cache - καλείται σε κάθε εγγραφή που αλλάζει το JSON της
+     * @param id Το ID της συνταγής
+     */
+    void invalidate(Long id);
+}
@@ -0,0 +1,35 @@
+package com.project.dass.Service;
+
+import com.project.dass.Model.Recipe;
+
+import java.util.List;
+
+// In-memory inverted index πάνω σε τίτλους, ονόματα υλικών και περιγραφές βημάτων
+public interface RecipeSearchIndex {
+
+    /**
+     * Αναζήτηση με κατάταξη: όλοι οι όροι πρέπει να ταιριάζουν, ολόκληροι ή ως πρόθεμα λέξης
+     * @param query Το κείμενο αναζήτησης
+     * @param limit Ο μέγιστος αριθμός αποτελεσμάτων
+     * @return Τα IDs των συνταγών, από το πιο σχετικό προς το λιγότερο
+     */
+    List<Long> search(String query, int limit);
+
+    /**
+     * Προσθέτει ή ενημερώνει μια συνταγή. Μέσα σε transaction η αλλαγή εφαρμόζεται μετά το commit.
+     * @param recipe Η συνταγή με αρχικοποιημένα ingredients και steps
+     */
+    void index(Recipe recipe);
+
+    /**
+     * Αφαιρεί μια συνταγή. Μέσα σε transaction η αλλαγή εφαρμόζεται μετά το commit.
+     * @param recipeId Το ID της συνταγής
+     */
+    void remove(Long recipeId);
+
+    // Ξαναχτίζει ολόκληρο το index από τη βάση
+    void rebuild();
+
+    // false μέχρι να ολοκληρωθεί το πρώτο rebuild
+    boolean isReady();
+}
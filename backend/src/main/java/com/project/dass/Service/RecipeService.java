@@ -1,26 +1,118 @@
 package com.project.dass.Service;
 
 import com.project.dass.Model.Recipe;
+import com.project.dass.Model.RecipeCoverage;
 import com.project.dass.Model.RecipeCategory;
+import com.project.dass.Model.RecipeFilter;
+import com.project.dass.Model.RecipePage;
+import com.project.dass.Model.RecipeSort;
+import com.project.dass.Model.RecipeSummary;
+import tools.jackson.databind.JsonNode;
+
 import java.util.List;
 import java.util.Optional;
 
 // Εδώ ορίζουμε ΜΟΝΟ τα συμβόλαια (τις μεθόδους), όχι τον κώδικα.
 public interface RecipeService {
 
-    List<Recipe> getAllRecipes();
+    /**
+     * Keyset pagination: επιστρέφει το πολύ {@code limit} συνταγές μετά το {@code cursor}.
+     *
+     * @param cursor Το token της προηγούμενης σελίδας, ή null για την πρώτη σελίδα
+     * @param limit  Το μέγεθος σελίδας (null για το default, περιορίζεται στο μέγιστο)
+     * @param sort   Η σειρά ταξινόμησης
+     * @throws IllegalArgumentException αν το cursor είναι άκυρο
+     */
+    RecipePage<Recipe> getRecipesPage(String cursor, Integer limit, RecipeSort sort);
+
+    // Όπως το getRecipesPage, αλλά με ελαφριές προβολές (χωρίς ingredients/steps)
+    RecipePage<RecipeSummary> getRecipeSummariesPage(String cursor, Integer limit, RecipeSort sort);
 
     Optional<Recipe> getRecipeById(Long id);
 
+    // Φορτώνει ολόκληρο το graph (ingredients, steps, steps[].ingredients, imageUrls) σε σταθερό αριθμό queries
+    Optional<Recipe> getRecipeDetails(Long id);
+
     Recipe saveRecipe(Recipe recipe);
 
     void deleteRecipe(Long id);
 
-    List<Recipe> searchRecipes(String keyword);
+    /**
+     * Αναζήτηση με κατάταξη κατά σχετικότητα (in-memory index ή MySQL FULLTEXT, ανάλογα με το recipes.search.mode).
+     *
+     * @param keyword Το κείμενο αναζήτησης
+     * @param cursor  Το token της προηγούμενης σελίδας, ή null για την πρώτη σελίδα
+     * @param limit   Το μέγεθος σελίδας (null για το default, περιορίζεται στο μέγιστο)
+     * @throws IllegalArgumentException αν το cursor είναι άκυρο
+     */
+    RecipePage<Recipe> searchRecipes(String keyword, String cursor, Integer limit);
 
     Optional<Recipe> updateRecipe(Long id, Recipe recipeDetails);
 
+    /**
+     * Όπως το updateRecipe, αλλά μόνο αν η συνταγή είναι ακόμη στο {@code expectedVersion} (If-Match)
+     * @throws org.springframework.dao.OptimisticLockingFailureException αν την άλλαξε κάποιος άλλος στο μεταξύ
+     */
+    Optional<Recipe> updateRecipe(Long id, Recipe recipeDetails, Long expectedVersion);
+
+    /**
+     * JSON Merge Patch (RFC 7396): αλλάζουν μόνο τα πεδία που υπάρχουν στο {@code patch}, null σημαίνει καθαρισμό.
+     * Τα ingredients/steps δέχονται είτε πίνακα (αντικατάσταση όλης της λίστας, όπως στο PUT) είτε αντικείμενο
+     * με κλειδί το id του child: {"42": {...}} ενημερώνει μόνο αυτό, {"42": null} το σβήνει, και ένα μη
+     * αριθμητικό κλειδί του client ({"new1": {...}}) προσθέτει νέο. Collections που δεν αναφέρει το patch δεν φορτώνονται.
+     *
+     * @param expectedVersion Το version από το If-Match, ή null
+     * @throws IllegalArgumentException αν το patch δεν είναι έγκυρο, π.χ. με μέλος που δεν υπάρχει ή δεν αλλάζει (id, version)
+     *                                  ή με id που δεν είναι child αυτής της συνταγής
+     * @throws org.springframework.dao.OptimisticLockingFailureException αν την άλλαξε κάποιος άλλος στο μεταξύ
+     */
+    Optional<Recipe> patchRecipe(Long id, JsonNode patch, Long expectedVersion);
+
+    // Το τρέχον version της συνταγής (για ETag), χωρίς φόρτωμα του graph
+    Optional<Long> getRecipeVersion(Long id);
+
+    // --- Φωτογραφίες: μία μικρή εντολή ανά αλλαγή (χωρίς φόρτωμα του graph), με αύξηση του version (ETag) ---
+
+    // false αν δεν υπάρχει η συνταγή. Ένα όνομα που υπάρχει ήδη δεν προστίθεται ξανά.
+    boolean addImageUrl(Long recipeId, String imageUrl);
+
+    // false αν δεν υπάρχει η συνταγή
+    boolean removeImageUrl(Long recipeId, String imageUrl);
+
+    // false αν δεν υπάρχει η συνταγή
+    boolean removeImageUrls(Long recipeId);
+
+    // null για καθαρισμό. false αν δεν υπάρχει το βήμα σε αυτή τη συνταγή
+    boolean setStepImageUrl(Long recipeId, Long stepId, String imageUrl);
+
+    // Όπως το setStepImageUrl, και επιστρέφει την προηγούμενη φωτογραφία του βήματος αν δεν τη χρησιμοποιεί πια
+    // κανένα βήμα της συνταγής ("" αν δεν υπάρχει τέτοια). Empty αν δεν υπάρχει το βήμα σε αυτή τη συνταγή
+    Optional<String> replaceStepImageUrl(Long recipeId, Long stepId, String imageUrl);
+
+    // Καθαρίζει τη φωτογραφία από όποιο βήμα της συνταγής την έχει
+    void clearStepImageUrl(Long recipeId, String imageUrl);
+
     List<Recipe> getRecipesByCategory(RecipeCategory category);
 
+    // Όπως το searchRecipes, αλλά με ελαφριές προβολές
+    RecipePage<RecipeSummary> searchRecipeSummaries(String keyword, String cursor, Integer limit);
+
+    List<RecipeSummary> getRecipeSummariesByCategory(RecipeCategory category);
+
+    /**
+     * Φιλτράρισμα στη βάση με όλα τα κριτήρια μαζί, με keyset pagination όπως το getRecipeSummariesPage.
+     * @throws IllegalArgumentException αν το cursor είναι άκυρο
+     */
+    RecipePage<RecipeSummary> filterRecipeSummaries(RecipeFilter filter, String cursor, Integer limit, RecipeSort sort);
+
+    /**
+     * "Τι μπορώ να μαγειρέψω": συνταγές κατά κάλυψη υλικών (πρώτα όσες δεν τους λείπει τίποτα).
+     *
+     * @param ingredients Τα υλικά που έχει ο χρήστης
+     * @param maxMissing  Ο μέγιστος αριθμός υλικών που επιτρέπεται να λείπουν (null = χωρίς όριο)
+     * @param limit       Ο μέγιστος αριθμός αποτελεσμάτων (null για το default μέγεθος σελίδας)
+     */
+    List<RecipeCoverage> findCookableRecipes(List<String> ingredients, Integer maxMissing, Integer limit);
+
     double calculateProgress(Recipe recipe, int lastCompletedStepOrder);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.project.dass.Service;
+
+import com.project.dass.Model.Recipe;
+import com.project.dass.Model.Suggestion;
+
+import java.util.List;
+
+// In-memory prefix index πάνω σε τίτλους συνταγών και ονόματα υλικών (autocomplete)
+public interface RecipeSuggestIndex {
+
+    /**
+     * Προτάσεις που κάποια λέξη τους ξεκινά με το {@code prefix}, πρώτα οι πιο δημοφιλείς.
+     * @param prefix Ό,τι έχει πληκτρολογήσει ο χρήστης (χωρίς διάκριση πεζών/κεφαλαίων και τόνων)
+     * @param limit  Ο μέγιστος αριθμός προτάσεων
+     */
+    List<Suggestion> suggest(String prefix, int limit);
+
+    /**
+     * Προσθέτει ή ενημερώνει μια συνταγή. Μέσα σε transaction η αλλαγή εφαρμόζεται μετά το commit.
+     * @param recipe Η συνταγή με αρχικοποιημένα ingredients
+     */
+    void index(Recipe recipe);
+
+    /**
+     * Αφαιρεί μια συνταγή. Μέσα σε transaction η αλλαγή εφαρμόζεται μετά το commit.
+     * @param recipeId Το ID της συνταγής
+     */
+    void remove(Long recipeId);
+
+    // Ξαναχτίζει ολόκληρο το index από τη βάση
+    void rebuild();
+}
@@ -0,0 +1,34 @@
+package com.project.dass.Service;
+
+import com.project.dass.Model.StepTimer;
+
+import java.util.List;
+import java.util.Optional;
+
+// Χρονόμετρα βημάτων στον server: όταν λήξουν, στέλνεται SSE event "timer" στους clients της εκτέλεσης
+public interface StepTimerService {
+
+    /**
+     * Ξεκινά ένα χρονόμετρο για ένα βήμα της συνταγής της εκτέλεσης
+     * @param sessionId Το ID της εκτέλεσης
+     * @param stepOrder Το stepOrder του βήματος
+     * @param minutes   Η διάρκεια σε λεπτά (null = το durationMinutes του βήματος)
+     * @return Το χρονόμετρο, ή empty αν η εκτέλεση ή το βήμα δεν υπάρχει
+     * @throws IllegalArgumentException αν η διάρκεια δεν είναι θετική ή ξεπερνά τη μία μέρα
+     * @throws IllegalStateException    αν η εκτέλεση έχει τελειώσει ή έχει ήδη το μέγιστο πλήθος χρονομέτρων
+     */
+    Optional<StepTimer> start(String sessionId, int stepOrder, Integer minutes);
+
+    /**
+     * @param sessionId Το ID της εκτέλεσης
+     * @return Τα χρονόμετρα που τρέχουν, κατά σειρά λήξης
+     */
+    List<StepTimer> list(String sessionId);
+
+    /**
+     * @param sessionId Το ID της εκτέλεσης
+     * @param timerId   Το ID του χρονομέτρου
+     * @return false αν δεν υπάρχει (ή έχει ήδη λήξει)
+     */
+    boolean cancel(String sessionId, long timerId);
+}
@@ -0,0 +1,28 @@
+package com.project.dass.ServiceImpl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Εκτελεί μια αλλαγή σε in-memory δομές (indexes) μόνο αν γίνει commit,
+ * ώστε ένα rollback να μην τις αφήνει ασυνεπείς με τη βάση.
+ * Εκτός transaction η αλλαγή εκτελείται αμέσως.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.CacheRegionStats;
+import com.project.dass.Service.CacheStatsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class CacheStatsServiceImpl implements CacheStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheStatsServiceImpl.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheStatsServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public List<CacheRegionStats> getSecondLevelCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+
+        List<CacheRegionStats> result = new ArrayList<>();
+        for (String region : regionNames) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats == null) {
+                continue;
+            }
+            result.add(new CacheRegionStats(region,
+                    regionStats.getHitCount(),
+                    regionStats.getMissCount(),
+                    regionStats.getPutCount(),
+                    getEvictionCount(region)));
+        }
+        return result;
+    }
+
+    /**
+     * Τα evictions δεν τα βλέπει το Hibernate - τα διαβάζουμε από το JCache statistics MXBean του provider
+     */
+    private long getEvictionCount(String region) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Set<ObjectName> names = server.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*"), null);
+            long evictions = 0;
+            for (ObjectName name : names) {
+                evictions += (Long) server.getAttribute(name, "CacheEvictions");
+            }
+            return names.isEmpty() ? -1 : evictions;
+        } catch (JMException e) {
+            logger.warn("Failed to read eviction count for cache region {}: {}", region, e.getMessage());
+            return -1;
+        }
+    }
+}
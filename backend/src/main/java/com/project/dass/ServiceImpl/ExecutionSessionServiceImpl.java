@@ -0,0 +1,405 @@
+package com.project.dass.ServiceImpl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.project.dass.Model.ExecutionSession;
+import com.project.dass.Model.ExecutionSnapshot;
+import com.project.dass.Model.ExecutionStatus;
+import com.project.dass.Model.StepProgress;
+import com.project.dass.Repos.ExecutionSessionRepository;
+import com.project.dass.Service.ExecutionSessionService;
+import com.project.dass.Service.RecipeProgressService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Οι εκτελέσεις ζουν σε ένα Caffeine cache με όριο πλήθους και idle eviction.
+ * Κάθε αλλαγή αφήνει το νέο αντίγραφο στο {@code pendingWrites} (ένα ανά εκτέλεση, το τελευταίο κερδίζει)
+ * και ένα μόνο thread το γράφει στη βάση ανά {@code flush-interval}, σε batches. Το ίδιο thread σβήνει
+ * τις τελειωμένες εκτελέσεις μετά το {@code finished-retention} και όλες τις άλλες μετά το {@code retention}.
+ * Τα SSE streams είναι async requests: ένας ανοιχτός client δεν κρατά thread, και τα events
+ * στέλνονται από το thread του request που έκανε την αλλαγή.
+ */
+@Service
+public class ExecutionSessionServiceImpl implements ExecutionSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionSessionServiceImpl.class);
+
+    static final String PROGRESS_EVENT = "progress";
+
+    // Μήκος ενός UUID: οτιδήποτε άλλο δεν αξίζει query στη βάση
+    private static final int SESSION_ID_LENGTH = 36;
+
+    private static final Duration PRUNE_INTERVAL = Duration.ofHours(1);
+
+    private static final TypeReference<List<StepProgress>> CURVE_TYPE = new TypeReference<>() { };
+
+    private final ExecutionSessionRepository executionSessionRepository;
+    private final RecipeProgressService recipeProgressService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final Duration idleTimeout;
+    private final Duration flushInterval;
+    private final int flushBatchSize;
+    private final int maxPendingWrites;
+    private final Duration finishedRetention;
+    private final Duration retention;
+
+    private final Cache<String, LiveExecution> sessions;
+
+    // Αλλαγές που δεν έχουν γραφτεί ακόμα στη βάση (έως περίπου maxPendingWrites, βλ. queueWrite)
+    private final Map<String, ExecutionSession> pendingWrites = new ConcurrentHashMap<>();
+    // Μία εγγραφή στη βάση τη φορά (flush ή writeThrough), ώστε μια παλιότερη κατάσταση να μη γράφεται πάνω σε νεότερη
+    private final Object writeLock = new Object();
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "execution-session-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ExecutionSessionServiceImpl(ExecutionSessionRepository executionSessionRepository,
+                                       RecipeProgressService recipeProgressService,
+                                       EntityManager entityManager,
+                                       PlatformTransactionManager transactionManager,
+                                       JsonMapper jsonMapper,
+                                       @Value("${recipes.execution.max-sessions:100000}") long maxSessions,
+                                       @Value("${recipes.execution.idle-timeout:60m}") Duration idleTimeout,
+                                       @Value("${recipes.execution.flush-interval:2s}") Duration flushInterval,
+                                       @Value("${recipes.execution.flush-batch-size:500}") int flushBatchSize,
+                                       @Value("${recipes.execution.max-pending-writes:10000}") int maxPendingWrites,
+                                       @Value("${recipes.execution.finished-retention:1d}") Duration finishedRetention,
+                                       @Value("${recipes.execution.retention:30d}") Duration retention) {
+        this.executionSessionRepository = executionSessionRepository;
+        this.recipeProgressService = recipeProgressService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jsonMapper = jsonMapper;
+        this.idleTimeout = idleTimeout;
+        this.flushInterval = flushInterval;
+        this.flushBatchSize = flushBatchSize;
+        this.maxPendingWrites = maxPendingWrites;
+        this.finishedRetention = finishedRetention;
+        this.retention = retention;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSessions)
+                .expireAfterAccess(idleTimeout)
+                // Το JVM-wide scheduler thread κάνει το expiry στην ώρα του, ώστε να κλείνουν και τα SSE streams
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener((String id, LiveExecution execution, RemovalCause cause) -> {
+                    // Η κατάσταση είναι ήδη στο pendingWrites ή στη βάση. Ο client ξανασυνδέεται
+                    // (το EventSource το κάνει μόνο του) και η εκτέλεση φορτώνεται ξανά.
+                    if (execution != null) {
+                        execution.emitters().forEach(SseEmitter::complete);
+                    }
+                })
+                .build();
+    }
+
+    @PostConstruct
+    void scheduleWrites() {
+        long intervalMillis = flushInterval.toMillis();
+        writer.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        long pruneMillis = PRUNE_INTERVAL.toMillis();
+        writer.scheduleWithFixedDelay(this::prune, pruneMillis, pruneMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Optional<ExecutionSnapshot> start(Long recipeId) {
+        return recipeProgressService.getProgressCurve(recipeId).map(curve -> {
+            long now = System.currentTimeMillis();
+            LiveExecution execution = LiveExecution.start(UUID.randomUUID().toString(), recipeId,
+                    curve, jsonMapper.writeValueAsString(curve), now);
+            ExecutionSession session = execution.toEntity();
+            if (!queueWrite(session)) {
+                writeThrough(session);
+            }
+            sessions.put(execution.id(), execution);
+            return execution.snapshot(now);
+        });
+    }
+
+    @Override
+    public Optional<ExecutionSnapshot> get(String sessionId) {
+        return find(sessionId).map(execution -> {
+            synchronized (execution) {
+                return execution.snapshot(System.currentTimeMillis());
+            }
+        });
+    }
+
+    @Override
+    public Optional<ExecutionSnapshot> advance(String sessionId) {
+        return change(sessionId, (execution, now) -> {
+            execution.advance(now);
+            return true;
+        });
+    }
+
+    @Override
+    public Optional<ExecutionSnapshot> pause(String sessionId) {
+        return change(sessionId, LiveExecution::pause);
+    }
+
+    @Override
+    public Optional<ExecutionSnapshot> resume(String sessionId) {
+        return change(sessionId, LiveExecution::resume);
+    }
+
+    @Override
+    public Optional<SseEmitter> subscribe(String sessionId) {
+        return find(sessionId).map(execution -> {
+            SseEmitter emitter = new SseEmitter(idleTimeout.toMillis());
+            Runnable unsubscribe = () -> execution.emitters().remove(emitter);
+            emitter.onCompletion(unsubscribe);
+            emitter.onTimeout(unsubscribe);
+            emitter.onError(error -> unsubscribe.run());
+
+            // Εγγραφή και snapshot μαζί: μια αλλαγή είτε φαίνεται στο πρώτο event είτε έρχεται ως επόμενο event
+            ExecutionSnapshot snapshot;
+            synchronized (execution) {
+                execution.emitters().add(emitter);
+                snapshot = execution.snapshot(System.currentTimeMillis());
+            }
+            send(execution, emitter, snapshot);
+            return emitter;
+        });
+    }
+
+    @Override
+    public boolean publish(String sessionId, String eventName, Object data) {
+        LiveExecution execution = sessionId == null ? null : sessions.getIfPresent(sessionId);
+        if (execution == null) {
+            return false;
+        }
+        for (SseEmitter emitter : execution.emitters()) {
+            send(execution, emitter, SseEmitter.event().name(eventName).data(data, MediaType.APPLICATION_JSON), false);
+        }
+        return true;
+    }
+
+    // Μια αλλαγή της κατάστασης: επιστρέφει false όταν δεν άλλαξε τίποτα (π.χ. pause σε παύση)
+    @FunctionalInterface
+    private interface Change {
+        boolean apply(LiveExecution execution, long now);
+    }
+
+    private Optional<ExecutionSnapshot> change(String sessionId, Change change) {
+        return find(sessionId).map(execution -> {
+            ExecutionSnapshot snapshot;
+            boolean changed;
+            ExecutionSession overflow = null;
+            synchronized (execution) {
+                long now = System.currentTimeMillis();
+                changed = change.apply(execution, now);
+                if (changed) {
+                    ExecutionSession session = execution.toEntity();
+                    if (!queueWrite(session)) {
+                        overflow = session;
+                    }
+                }
+                snapshot = execution.snapshot(now);
+            }
+            // Εκτός lock: ένας αργός client ή μια αργή βάση δεν καθυστερεί τις επόμενες αλλαγές
+            if (changed) {
+                publish(execution, snapshot);
+            }
+            if (overflow != null) {
+                writeThrough(overflow);
+            }
+            return snapshot;
+        });
+    }
+
+    private Optional<LiveExecution> find(String sessionId) {
+        if (sessionId == null || sessionId.length() != SESSION_ID_LENGTH) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(sessions.get(sessionId, this::restore));
+    }
+
+    // Εκτέλεση που δεν είναι στη μνήμη: πρώτα από τις εγγραφές σε αναμονή, μετά από τη βάση
+    private LiveExecution restore(String sessionId) {
+        ExecutionSession stored = pendingWrites.get(sessionId);
+        if (stored == null) {
+            stored = executionSessionRepository.findById(sessionId).orElse(null);
+        }
+        if (stored == null) {
+            return null;
+        }
+        ExecutionSession session = stored;
+        if (session.getProgressCurve() != null) {
+            return LiveExecution.restore(session, jsonMapper.readValue(session.getProgressCurve(), CURVE_TYPE),
+                    session.getProgressCurve());
+        }
+        // Εγγραφή χωρίς αποθηκευμένη καμπύλη: η τρέχουσα καμπύλη της συνταγής
+        return recipeProgressService.getProgressCurve(session.getRecipeId())
+                .map(curve -> LiveExecution.restore(session, curve, jsonMapper.writeValueAsString(curve)))
+                .orElse(null);
+    }
+
+    private void publish(LiveExecution execution, ExecutionSnapshot snapshot) {
+        for (SseEmitter emitter : execution.emitters()) {
+            send(execution, emitter, snapshot);
+        }
+    }
+
+    private void send(LiveExecution execution, SseEmitter emitter, ExecutionSnapshot snapshot) {
+        send(execution, emitter, SseEmitter.event()
+                        .id(Long.toString(snapshot.sequence()))
+                        .name(PROGRESS_EVENT)
+                        .data(snapshot, MediaType.APPLICATION_JSON),
+                snapshot.status() == ExecutionStatus.FINISHED);
+    }
+
+    private void send(LiveExecution execution, SseEmitter emitter, SseEmitter.SseEventBuilder event, boolean last) {
+        try {
+            emitter.send(event);
+            if (last) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Ο client έφυγε: το επόμενο event δεν χρειάζεται να ξαναδοκιμάσει
+            execution.emitters().remove(emitter);
+        }
+    }
+
+    // --- WRITE-BEHIND ---
+
+    // false όταν το pendingWrites είναι γεμάτο και η εκτέλεση δεν περιμένει ήδη εκεί: ο caller τη γράφει
+    // αμέσως με writeThrough, αφού αφήσει το lock της εκτέλεσης
+    private boolean queueWrite(ExecutionSession session) {
+        if (pendingWrites.size() < maxPendingWrites || pendingWrites.containsKey(session.getId())) {
+            pendingWrites.put(session.getId(), session);
+            return true;
+        }
+        return false;
+    }
+
+    // Στο thread της αλλαγής: η μνήμη μένει φραγμένη και ο ρυθμός των αλλαγών πέφτει στον ρυθμό της βάσης
+    private void writeThrough(ExecutionSession session) {
+        try {
+            synchronized (writeLock) {
+                transactionTemplate.executeWithoutResult(status -> write(List.of(session)));
+            }
+        } catch (RuntimeException e) {
+            // Η κατάσταση στη μνήμη μένει σωστή· γράφεται ξανά με την επόμενη αλλαγή
+            logger.warn("Failed to write execution session {} with a full write-behind queue: {}",
+                    session.getId(), e.getMessage());
+        }
+    }
+
+    // Ένα SELECT ... IN και batched INSERT/UPDATE ανά flushBatchSize εκτελέσεις
+    void flush() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        List<ExecutionSession> batch = new ArrayList<>(pendingWrites.values());
+        for (int from = 0; from < batch.size(); from += flushBatchSize) {
+            List<ExecutionSession> chunk = batch.subList(from, Math.min(from + flushBatchSize, batch.size()));
+            try {
+                synchronized (writeLock) {
+                    transactionTemplate.executeWithoutResult(status -> write(chunk));
+                }
+                // Μόνο αν δεν άλλαξε ξανά όσο γράφαμε (remove με το ίδιο instance)
+                chunk.forEach(session -> pendingWrites.remove(session.getId(), session));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to write {} execution sessions, retrying on next flush: {}",
+                        chunk.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void write(List<ExecutionSession> chunk) {
+        Map<String, ExecutionSession> stored = new HashMap<>();
+        executionSessionRepository.findAllById(chunk.stream().map(ExecutionSession::getId).toList())
+                .forEach(session -> stored.put(session.getId(), session));
+
+        for (ExecutionSession session : chunk) {
+            ExecutionSession current = stored.get(session.getId());
+            // Το updatedAt είναι το sequence της εκτέλεσης: μια παλιότερη κατάσταση δεν γράφεται πάνω σε νεότερη
+            if (current == null) {
+                entityManager.persist(copy(session));
+            } else if (current.getUpdatedAt().getTime() <= session.getUpdatedAt().getTime()) {
+                current.setStatus(session.getStatus());
+                current.setCompletedSteps(session.getCompletedSteps());
+                current.setActiveMillis(session.getActiveMillis());
+                current.setResumedAt(session.getResumedAt());
+                current.setUpdatedAt(session.getUpdatedAt());
+                // Εγγραφές από πριν αποθηκεύεται η καμπύλη: κρατάμε αυτή με την οποία συνεχίζει η εκτέλεση
+                if (current.getProgressCurve() == null) {
+                    current.setProgressCurve(session.getProgressCurve());
+                }
+            }
+        }
+    }
+
+    void prune() {
+        long now = System.currentTimeMillis();
+        try {
+            Integer deleted = transactionTemplate.execute(status -> executionSessionRepository.deleteExpired(
+                    ExecutionStatus.FINISHED, new Date(now - finishedRetention.toMillis()),
+                    new Date(now - retention.toMillis())));
+            if (deleted != null && deleted > 0) {
+                logger.info("Deleted {} expired execution sessions", deleted);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to delete expired execution sessions: {}", e.getMessage());
+        }
+    }
+
+    // Το instance του pendingWrites μένει detached, ώστε το remove(id, session) να συγκρίνει το ίδιο αντικείμενο
+    private static ExecutionSession copy(ExecutionSession session) {
+        ExecutionSession copy = new ExecutionSession();
+        copy.setId(session.getId());
+        copy.setRecipeId(session.getRecipeId());
+        copy.setStatus(session.getStatus());
+        copy.setCompletedSteps(session.getCompletedSteps());
+        copy.setActiveMillis(session.getActiveMillis());
+        copy.setResumedAt(session.getResumedAt());
+        copy.setStartedAt(session.getStartedAt());
+        copy.setUpdatedAt(session.getUpdatedAt());
+        copy.setProgressCurve(session.getProgressCurve());
+        return copy;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Ό,τι έμεινε γράφεται πριν κλείσει το connection pool
+        flush();
+    }
+}
@@ -0,0 +1,11 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.Ingredient;
+
+// Το (name, quantity, unit) ενός υλικού ως κλειδί για HashMap (το @Data του Ingredient περιέχει id και recipe)
+record IngredientKey(String name, Double quantity, String unit) {
+
+    static IngredientKey of(Ingredient ingredient) {
+        return new IngredientKey(ingredient.getName(), ingredient.getQuantity(), ingredient.getUnit());
+    }
+}
@@ -0,0 +1,59 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.Ingredient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Αντιστοιχίζει τα υλικά ενός βήματος στα υλικά της συνταγής: πρώτα με το id
+ * και αλλιώς με το (name, quantity, unit). Τα HashMaps χτίζονται μία φορά ανά συνταγή,
+ * οπότε κάθε υλικό βήματος κοστίζει ένα lookup αντί για σάρωση όλων των υλικών.
+ */
+final class IngredientLinker {
+
+    private final Map<Long, Ingredient> byId = new HashMap<>();
+    private final Map<IngredientKey, Ingredient> byKey = new HashMap<>();
+
+    // Τα ids διαβάζονται εδώ, ώστε ο caller να μπορεί μετά να τα μηδενίσει (π.χ. στο import)
+    IngredientLinker(List<Ingredient> ingredients) {
+        for (Ingredient ingredient : ingredients) {
+            if (ingredient.getId() != null) {
+                byId.put(ingredient.getId(), ingredient);
+            }
+            byKey.putIfAbsent(IngredientKey.of(ingredient), ingredient);
+        }
+    }
+
+    // Υλικά βήματος που δεν υπάρχουν στη συνταγή παραλείπονται
+    List<Ingredient> link(List<Ingredient> stepIngredients) {
+        List<Ingredient> linked = new ArrayList<>(stepIngredients.size());
+        for (Ingredient stepIngredient : stepIngredients) {
+            Ingredient ingredient = stepIngredient.getId() != null ? byId.get(stepIngredient.getId()) : null;
+            if (ingredient == null) {
+                ingredient = byKey.get(IngredientKey.of(stepIngredient));
+            }
+            if (ingredient != null) {
+                linked.add(ingredient);
+            }
+        }
+        return linked;
+    }
+
+    // Το step_ingredients είναι bag χωρίς σειρά: ίδια instances σημαίνει ίδιες γραμμές
+    static boolean sameIngredients(List<Ingredient> current, List<Ingredient> linked) {
+        if (current.size() != linked.size()) {
+            return false;
+        }
+        Set<Ingredient> currentSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        currentSet.addAll(current);
+        Set<Ingredient> linkedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        linkedSet.addAll(linked);
+        return currentSet.equals(linkedSet);
+    }
+}
@@ -0,0 +1,292 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.Ingredient;
+import com.project.dass.Model.IngredientMatch;
+import com.project.dass.Model.Recipe;
+import com.project.dass.Repos.RecipeRepository;
+import com.project.dass.Service.IngredientMatchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Service
+public class IngredientMatchIndexImpl implements IngredientMatchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngredientMatchIndexImpl.class);
+
+    private static final Comparator<Coverage> BY_COVERAGE = Comparator
+            .comparingInt(Coverage::missing)
+            .thenComparing(Comparator.comparingInt(Coverage::matched).reversed())
+            .thenComparing(Coverage::recipeId);
+
+    // Όταν η intern table φτάσει τα τόσα ονόματα (και το διπλάσιο από όσα είχε στο τελευταίο χτίσιμο),
+    // ξαναχτίζεται από τις τρέχουσες συνταγές ώστε να φύγουν τα υλικά που δεν χρησιμοποιούνται πια
+    private static final int MIN_COMPACT_SIZE = 1024;
+
+    private final RecipeRepository recipeRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Table table = new Table();
+    // Αλλαγές που έγιναν όσο έτρεχε ένα rebuild (null όταν δεν τρέχει rebuild)
+    private List<Map.Entry<Long, List<String>>> changesDuringRebuild;
+    private volatile boolean ready;
+
+    public IngredientMatchIndexImpl(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    private record Coverage(Long recipeId, int[] ingredients, int matched) {
+        int missing() {
+            return ingredients.length - matched;
+        }
+    }
+
+    @Override
+    public List<IngredientMatch> match(Collection<String> ingredients, Integer maxMissing, int limit) {
+        if (!ready) {
+            return matchFromDatabase(ingredients, maxMissing, limit);
+        }
+        lock.readLock().lock();
+        try {
+            return table.match(ingredients, maxMissing, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Μέχρι να χτιστεί το index (startup): μόνο οι συνταγές με κάποιο υλικό ίδιο σε πεζά, σε ένα προσωρινό table
+    private List<IngredientMatch> matchFromDatabase(Collection<String> ingredients, Integer maxMissing, int limit) {
+        Set<String> names = new HashSet<>();
+        for (String ingredient : ingredients) {
+            names.add(ingredient.trim().toLowerCase(Locale.ROOT));
+            names.add(key(ingredient));
+        }
+        names.remove("");
+        if (names.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Table candidates = new Table();
+        namesByRecipe(recipeRepository.findIngredientNamesOfRecipesUsing(names)).forEach(candidates::apply);
+        return candidates.match(ingredients, maxMissing, limit);
+    }
+
+    @Override
+    public void index(Recipe recipe) {
+        if (recipe.getId() == null) {
+            return;
+        }
+        // Τα ονόματα διαβάζονται τώρα, όσο το collection της συνταγής είναι προσβάσιμο
+        List<String> names = recipe.getIngredients() == null ? List.of()
+                : recipe.getIngredients().stream().map(Ingredient::getName).toList();
+        AfterCommit.run(() -> apply(recipe.getId(), names));
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        if (recipeId != null) {
+            AfterCommit.run(() -> apply(recipeId, null));
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Map<Long, List<String>> namesByRecipe = namesByRecipe(recipeRepository.findAllIngredientNames());
+
+            // Νέα intern table: τα υλικά που δεν χρησιμοποιεί πια καμία συνταγή δεν μεταφέρονται
+            Table rebuilt = new Table();
+            namesByRecipe.forEach(rebuilt::apply);
+            rebuilt.resetCompactionThreshold();
+
+            lock.writeLock().lock();
+            try {
+                table = rebuilt;
+                // Ό,τι άλλαξε όσο διαβάζαμε τη βάση εφαρμόζεται πάνω στο νέο index
+                List<Map.Entry<Long, List<String>>> changes = changesDuringRebuild;
+                changesDuringRebuild = null;
+                changes.forEach(change -> table.apply(change.getKey(), change.getValue()));
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            logger.info("Rebuilt ingredient match index: {} recipes, {} distinct ingredients in {} ms",
+                    namesByRecipe.size(), rebuilt.ingredientNames.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Failed to rebuild ingredient match index: {}", e.getMessage(), e);
+        }
+    }
+
+    private static Map<Long, List<String>> namesByRecipe(List<Object[]> rows) {
+        return rows.stream().collect(Collectors.groupingBy(row -> (Long) row[0],
+                Collectors.mapping(row -> (String) row[1], Collectors.toList())));
+    }
+
+    private void apply(Long recipeId, List<String> names) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(new AbstractMap.SimpleEntry<>(recipeId, names));
+            }
+            table.apply(recipeId, names);
+            if (table.needsCompaction()) {
+                table = table.compacted();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Intern table και υλικά ανά συνταγή. Τα ids δεν ανακυκλώνονται μέσα σε ένα table, οπότε τα ονόματα
+     * υλικών που αφαιρέθηκαν μένουν μέχρι το επόμενο rebuild ή compaction.
+     */
+    private static final class Table {
+        // κανονικοποιημένο όνομα υλικού -> μικρό int id
+        private final Map<String, Integer> ingredientIds = new HashMap<>();
+        // id -> όνομα όπως εμφανίστηκε πρώτη φορά, για τα missingIngredients
+        private final List<String> ingredientNames = new ArrayList<>();
+        // recipeId -> ταξινομημένα ids υλικών. Οι συνταγές έχουν λίγα υλικά από χιλιάδες πιθανά,
+        // οπότε ο πίνακας θέσεων είναι η συμπιεσμένη μορφή του bitset τους.
+        private final Map<Long, int[]> recipes = new HashMap<>();
+        private int compactAt = MIN_COMPACT_SIZE;
+
+        List<IngredientMatch> match(Collection<String> ingredients, Integer maxMissing, int limit) {
+            // Τα υλικά του χρήστη ως bitset πάνω στα interned ids
+            BitSet pantry = new BitSet(ingredientNames.size());
+            for (String ingredient : ingredients) {
+                Integer id = ingredientIds.get(key(ingredient));
+                if (id != null) {
+                    pantry.set(id);
+                }
+            }
+            if (pantry.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+
+            // Σάρωση όλων των συνταγών παράλληλα: για κάθε μία μετράμε πόσα υλικά της είναι στο bitset
+            List<Coverage> ranked = recipes.entrySet().parallelStream()
+                    .map(entry -> new Coverage(entry.getKey(), entry.getValue(), countIn(pantry, entry.getValue())))
+                    .filter(coverage -> coverage.matched() > 0)
+                    .filter(coverage -> maxMissing == null || coverage.missing() <= maxMissing)
+                    .sorted(BY_COVERAGE)
+                    .limit(limit)
+                    .toList();
+
+            return ranked.stream()
+                    .map(coverage -> new IngredientMatch(coverage.recipeId(), coverage.matched(),
+                            coverage.ingredients().length, missingNames(pantry, coverage.ingredients())))
+                    .toList();
+        }
+
+        private List<String> missingNames(BitSet pantry, int[] ingredients) {
+            List<String> missing = new ArrayList<>();
+            for (int id : ingredients) {
+                if (!pantry.get(id)) {
+                    missing.add(ingredientNames.get(id));
+                }
+            }
+            return missing;
+        }
+
+        // names == null σημαίνει αφαίρεση της συνταγής
+        void apply(Long recipeId, List<String> names) {
+            if (names == null || names.isEmpty()) {
+                recipes.remove(recipeId);
+                return;
+            }
+            int[] ids = names.stream()
+                    .mapToInt(this::intern)
+                    .filter(id -> id >= 0)
+                    .distinct()
+                    .sorted()
+                    .toArray();
+            recipes.put(recipeId, ids);
+        }
+
+        private int intern(String name) {
+            String key = key(name);
+            if (key.isEmpty()) {
+                return -1;
+            }
+            return ingredientIds.computeIfAbsent(key, k -> {
+                ingredientNames.add(name.trim());
+                return ingredientNames.size() - 1;
+            });
+        }
+
+        boolean needsCompaction() {
+            return ingredientNames.size() >= compactAt;
+        }
+
+        // Νέο table μόνο με τα υλικά που χρησιμοποιούνται (τα ονόματα είναι ήδη μέσα, χωρίς βάση)
+        Table compacted() {
+            Table compacted = new Table();
+            recipes.forEach((recipeId, ids) -> {
+                List<String> names = new ArrayList<>(ids.length);
+                for (int id : ids) {
+                    names.add(ingredientNames.get(id));
+                }
+                compacted.apply(recipeId, names);
+            });
+            compacted.resetCompactionThreshold();
+            return compacted;
+        }
+
+        void resetCompactionThreshold() {
+            compactAt = Math.max(MIN_COMPACT_SIZE, ingredientNames.size() * 2);
+        }
+    }
+
+    private static int countIn(BitSet pantry, int[] ingredients) {
+        int count = 0;
+        for (int id : ingredients) {
+            if (pantry.get(id)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // "Olive  Oil", "olive oil" και "Ελιές"/"ελιες" καταλήγουν στο ίδιο υλικό
+    private static String key(String name) {
+        return String.join(" ", SearchText.tokenize(name));
+    }
+}
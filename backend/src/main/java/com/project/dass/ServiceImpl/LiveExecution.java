@@ -0,0 +1,140 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.ExecutionSession;
+import com.project.dass.Model.ExecutionSnapshot;
+import com.project.dass.Model.ExecutionStatus;
+import com.project.dass.Model.StepProgress;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Η ζωντανή κατάσταση μιας εκτέλεσης. Οι αλλαγές γίνονται με κλειδωμένο το instance
+ * (synchronized στον caller), ώστε η κατάσταση και το αντίγραφο για τη βάση να συμφωνούν.
+ * Η καμπύλη προόδου κρατιέται από την αρχή της εκτέλεσης (και αποθηκεύεται μαζί της): αλλαγές
+ * της συνταγής στο μεταξύ δεν μετακινούν τον μάγειρα σε άλλο βήμα, ούτε μετά από eviction ή restart.
+ */
+final class LiveExecution {
+
+    private final String id;
+    private final Long recipeId;
+    private final List<StepProgress> curve;
+    // Η ίδια καμπύλη σε JSON, για τη στήλη progressCurve (σειριοποιείται μία φορά)
+    private final String storedCurve;
+    private final Date startedAt;
+    // Οι ανοιχτοί SSE clients (συνήθως ένας ή δύο ανά εκτέλεση)
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private ExecutionStatus status;
+    private int completedSteps;
+    private long activeMillis;
+    private long resumedAt;
+    private long sequence;
+
+    private LiveExecution(String id, Long recipeId, List<StepProgress> curve, String storedCurve, Date startedAt) {
+        this.id = id;
+        this.recipeId = recipeId;
+        this.curve = curve;
+        this.storedCurve = storedCurve;
+        this.startedAt = startedAt;
+    }
+
+    static LiveExecution start(String id, Long recipeId, List<StepProgress> curve, String storedCurve, long now) {
+        LiveExecution execution = new LiveExecution(id, recipeId, curve, storedCurve, new Date(now));
+        execution.status = curve.isEmpty() ? ExecutionStatus.FINISHED : ExecutionStatus.RUNNING;
+        execution.resumedAt = now;
+        execution.sequence = now;
+        return execution;
+    }
+
+    // Από τη βάση (ή από εγγραφή που δεν έχει γραφτεί ακόμα), π.χ. μετά από eviction ή restart
+    static LiveExecution restore(ExecutionSession stored, List<StepProgress> curve, String storedCurve) {
+        LiveExecution execution = new LiveExecution(stored.getId(), stored.getRecipeId(), curve, storedCurve,
+                stored.getStartedAt());
+        execution.status = stored.getStatus();
+        execution.completedSteps = Math.min(stored.getCompletedSteps(), curve.size());
+        execution.activeMillis = stored.getActiveMillis();
+        execution.resumedAt = stored.getResumedAt() != null ? stored.getResumedAt().getTime() : 0;
+        execution.sequence = stored.getUpdatedAt().getTime();
+        return execution;
+    }
+
+    String id() {
+        return id;
+    }
+
+    List<SseEmitter> emitters() {
+        return emitters;
+    }
+
+    void advance(long now) {
+        requireStatus(ExecutionStatus.RUNNING);
+        completedSteps++;
+        if (completedSteps >= curve.size()) {
+            activeMillis += now - resumedAt;
+            status = ExecutionStatus.FINISHED;
+        }
+        changed(now);
+    }
+
+    // false αν ήταν ήδη σε παύση
+    boolean pause(long now) {
+        if (status == ExecutionStatus.PAUSED) {
+            return false;
+        }
+        requireStatus(ExecutionStatus.RUNNING);
+        activeMillis += now - resumedAt;
+        status = ExecutionStatus.PAUSED;
+        changed(now);
+        return true;
+    }
+
+    // false αν έτρεχε ήδη
+    boolean resume(long now) {
+        if (status == ExecutionStatus.RUNNING) {
+            return false;
+        }
+        requireStatus(ExecutionStatus.PAUSED);
+        resumedAt = now;
+        status = ExecutionStatus.RUNNING;
+        changed(now);
+        return true;
+    }
+
+    ExecutionSnapshot snapshot(long now) {
+        long elapsed = activeMillis + (status == ExecutionStatus.RUNNING ? now - resumedAt : 0);
+        Integer completedStepOrder = completedSteps > 0 ? curve.get(completedSteps - 1).stepOrder() : null;
+        Integer nextStepOrder = completedSteps < curve.size() ? curve.get(completedSteps).stepOrder() : null;
+        double progress = completedSteps > 0 ? curve.get(completedSteps - 1).progress() : 0.0;
+        return new ExecutionSnapshot(id, recipeId, status, sequence, completedSteps, curve.size(),
+                completedStepOrder, nextStepOrder, progress, elapsed / 1000);
+    }
+
+    // Νέο αντικείμενο σε κάθε αλλαγή: το write-behind κρατά μόνο το τελευταίο ανά εκτέλεση
+    ExecutionSession toEntity() {
+        ExecutionSession entity = new ExecutionSession();
+        entity.setId(id);
+        entity.setRecipeId(recipeId);
+        entity.setStatus(status);
+        entity.setCompletedSteps(completedSteps);
+        entity.setActiveMillis(activeMillis);
+        entity.setResumedAt(status == ExecutionStatus.RUNNING ? new Date(resumedAt) : null);
+        entity.setStartedAt(startedAt);
+        entity.setUpdatedAt(new Date(sequence));
+        entity.setProgressCurve(storedCurve);
+        return entity;
+    }
+
+    private void requireStatus(ExecutionStatus required) {
+        if (status != required) {
+            throw new IllegalStateException("Execution " + id + " is " + status);
+        }
+    }
+
+    // Το sequence είναι και η ώρα της αλλαγής, οπότε συνεχίζει να αυξάνεται μετά από restore
+    private void changed(long now) {
+        sequence = Math.max(sequence + 1, now);
+    }
+}
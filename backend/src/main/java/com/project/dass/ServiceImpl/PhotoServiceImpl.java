@@ -1,31 +1,36 @@
 package com.project.dass.ServiceImpl;
 
+import com.project.dass.Model.PhotoFile;
 import com.project.dass.Model.Recipe;
+import com.project.dass.Model.StoredPhoto;
 import com.project.dass.Service.PhotoService;
+import com.project.dass.Service.PhotoStore;
+import com.project.dass.Service.PhotoVariantService;
+import com.project.dass.Service.RecipeResponseCache;
 import com.project.dass.Service.RecipeService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.stream.Stream;
 
 @Service("photoService")
 @Transactional // Ensures database operations are atomic
@@ -36,13 +41,24 @@ public class PhotoServiceImpl implements PhotoService {
             ".jpg", ".jpeg", ".png", ".gif", ".webp", ".bmp"
     );
 
-    @Value("${photos.directory:photos}")
-    private String photosDirectory;
+    // Streamed uploads get the same limit as multipart ones
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxFileSize;
 
     private final RecipeService recipeService;
-
-    public PhotoServiceImpl(RecipeService recipeService) {
+    private final RecipeResponseCache recipeResponseCache;
+    private final PhotoVariantService photoVariantService;
+    private final PhotoStore photoStore;
+    private final TransactionTemplate transactionTemplate;
+
+    public PhotoServiceImpl(RecipeService recipeService, RecipeResponseCache recipeResponseCache,
+                            PhotoVariantService photoVariantService, PhotoStore photoStore,
+                            PlatformTransactionManager transactionManager) {
         this.recipeService = recipeService;
+        this.recipeResponseCache = recipeResponseCache;
+        this.photoVariantService = photoVariantService;
+        this.photoStore = photoStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -60,6 +76,7 @@ public class PhotoServiceImpl implements PhotoService {
     }
 
     @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED) // The photo is recorded in a short transaction of its own
     public Optional<String> uploadPhoto(Map<String, Long> ids, MultipartFile file) {
         // Extract recipeId from map
         Optional<Long> recipeIdOpt = extractRecipeId(ids);
@@ -100,68 +117,86 @@ public class PhotoServiceImpl implements PhotoService {
         }
 
         try {
-            // Get the backend folder (current working directory)
-            String backendRoot = System.getProperty("user.dir");
-            Path photosDir = Paths.get(backendRoot, photosDirectory, String.valueOf(recipeId));
-
-            // Create directory if it doesn't exist
-            if (!Files.exists(photosDir)) {
-                Files.createDirectories(photosDir);
-                logger.debug("Created photos directory for recipe ID: {}", recipeId);
-            }
+            return store(recipeId, file.getInputStream());
+        } catch (IOException e) {
+            logger.error("Failed to upload photo for recipe ID {}: {}", recipeId, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
 
-            // Generate unique filename to avoid overwriting
-            String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-
-            // Save the file
-            Path filePath = photosDir.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            // Update recipe with the filename (stored in DB for retrieval via /recipes/{id}/photo/{filename})
-            // The recipe ID in the endpoint specifies the folder (photos/{id}/), filename specifies the file
-            Recipe recipe = recipeOpt.get();
-            
-            // Store only the filename in the database - the recipe ID is already known from the recipe context
-            // This allows easy construction of the endpoint URL: /recipes/{id}/photo/{filename}
-            String imageUrl = uniqueFilename;
-            
-            // Ensure imageUrls list is initialized
-            if (recipe.getImageUrls() == null) {
-                recipe.setImageUrls(new ArrayList<>());
-            }
-            
-            // Add the filename to the database
-            recipe.getImageUrls().add(imageUrl);
-            
-            // Save to database - this will update the recipe_images table
-            recipeService.saveRecipe(recipe);
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED) // No transaction (or connection) while the body arrives
+    public Optional<String> uploadPhoto(Map<String, Long> ids, InputStream content) {
+        // Extract recipeId from map
+        Optional<Long> recipeIdOpt = extractRecipeId(ids);
+        if (recipeIdOpt.isEmpty()) {
+            logger.warn("Invalid ids map provided - must contain 'recipeId' key");
+            return Optional.empty();
+        }
 
-            logger.info("Successfully uploaded photo for recipe ID {}: {} (saved to DB as filename)", recipeId, uniqueFilename);
-            // Return only what is saved in the database (the filename)
-            return Optional.of(imageUrl);
+        Long recipeId = recipeIdOpt.get();
 
+        try {
+            return store(recipeId, content);
         } catch (IOException e) {
             logger.error("Failed to upload photo for recipe ID {}: {}", recipeId, e.getMessage(), e);
             return Optional.empty();
         }
     }
 
+    /**
+     * Store the photo (once per distinct content) and link it into photos/{recipeId}/, then add its filename
+     * to the recipe (in the caller's transaction, or in a short one of its own for streamed uploads)
+     */
+    private Optional<String> store(Long recipeId, InputStream content) throws IOException {
+        // Filename from the content hash, with the extension of the actual image type
+        // Store only the filename in the database - the recipe ID is already known from the recipe context
+        // This allows easy construction of the endpoint URL: /recipes/{id}/photo/{filename}
+        // One INSERT into recipe_images (skipped if the recipe already has this photo) and the version bump
+        Optional<StoredPhoto> stored = photoStore.store(recipeId, "", content, maxFileSize.toBytes(),
+                photo -> Boolean.TRUE.equals(transactionTemplate.execute(
+                        status -> recipeService.addImageUrl(recipeId, photo.filename()))));
+        if (stored.isEmpty()) {
+            logger.warn("Rejected photo for recipe ID {}: not a supported image or larger than {}", recipeId, maxFileSize);
+            return Optional.empty();
+        }
+        if (!stored.get().recorded()) {
+            return Optional.empty();
+        }
+        String imageUrl = stored.get().filename();
+
+        // Invalidate the cached recipe JSON - it contains the photo filenames
+        recipeResponseCache.invalidate(recipeId);
+
+        // Resized variants are generated in the background; until then the original is served
+        photoVariantService.generateVariants(photoStore.canonical(stored.get().path()));
+
+        logger.info("Successfully uploaded photo for recipe ID {}: {} ({} bytes, sha256 {})",
+                recipeId, imageUrl, stored.get().size(), stored.get().sha256());
+        // Return only what is saved in the database (the filename)
+        return Optional.of(imageUrl);
+    }
+
     @Override
-    public Optional<Resource> getPhoto(Long recipeId, String filename) {
-        try {
-            String backendRoot = System.getProperty("user.dir");
-            Path photoPath = Paths.get(backendRoot, photosDirectory, String.valueOf(recipeId), filename);
+    public Optional<PhotoFile> getPhoto(Long recipeId, String filename, Integer width) {
+        // The original, or its variant for the requested width
+        return getOriginal(recipeId, filename).map(photo -> photoVariantService.resolve(photo, width));
+    }
 
-            if (!Files.exists(photoPath) || !Files.isRegularFile(photoPath)) {
-                return Optional.empty();
-            }
+    private Optional<PhotoFile> getOriginal(Long recipeId, String filename) {
+        try {
+            Path photoPath = photoStore.locate(recipeId, filename);
 
-            Resource resource = new UrlResource(photoPath.toUri());
-            if (resource.exists() && resource.isReadable()) {
-                return Optional.of(resource);
-            } else {
+            // One stat call gives existence, type, size and last-modified time
+            BasicFileAttributes attributes = Files.readAttributes(photoPath, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
                 return Optional.empty();
             }
+            // Served from the shared stored file, where its variants are too
+            return Optional.of(new PhotoFile(photoStore.canonical(photoPath), attributes.size(),
+                    attributes.lastModifiedTime().toMillis()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
         } catch (Exception e) {
             logger.error("Failed to get photo for recipe ID {} and filename {}: {}", recipeId, filename, e.getMessage(), e);
             return Optional.empty();
@@ -199,30 +234,16 @@ public class PhotoServiceImpl implements PhotoService {
     @Override
     public boolean deletePhoto(Long recipeId, String filename) {
         try {
-            String backendRoot = System.getProperty("user.dir");
-            Path photoPath = Paths.get(backendRoot, photosDirectory, String.valueOf(recipeId), filename);
-
-            if (!Files.exists(photoPath)) {
+            // Delete the file (its content and variants go with the last photo using them)
+            if (!photoStore.delete(recipeId, filename)) {
                 return false;
             }
 
-            // Delete the file
-            Files.delete(photoPath);
-
-            // Remove from recipe's imageUrls and update database
-            // Since we store only the filename in the database, remove by filename
-            Optional<Recipe> recipeOpt = recipeService.getRecipeById(recipeId);
-            if (recipeOpt.isPresent()) {
-                Recipe recipe = recipeOpt.get();
-                
-                // Ensure imageUrls list is initialized
-                if (recipe.getImageUrls() != null) {
-                    // Remove the filename from the database (stored as just the filename)
-                    recipe.getImageUrls().remove(filename);
-                    // Save to database - this will update the recipe_images table
-                    recipeService.saveRecipe(recipe);
-                }
-            }
+            // Remove the filename from recipe_images (stored as just the filename)
+            recipeService.removeImageUrl(recipeId, filename);
+
+            // Invalidate the cached recipe JSON - it contains the photo filenames
+            recipeResponseCache.invalidate(recipeId);
 
             logger.info("Successfully deleted photo for recipe ID {}: {}", recipeId, filename);
             return true;
@@ -244,40 +265,14 @@ public class PhotoServiceImpl implements PhotoService {
         Long recipeId = recipeIdOpt.get();
         
         try {
-            String backendRoot = System.getProperty("user.dir");
-            Path photosDir = Paths.get(backendRoot, photosDirectory, String.valueOf(recipeId));
+            // Delete all photos in the directory, and the directory itself
+            photoStore.deleteAll(recipeId);
 
-            if (!Files.exists(photosDir)) {
-                return true; // Directory doesn't exist, consider it successful
-            }
+            // Clear the recipe's entries in recipe_images
+            recipeService.removeImageUrls(recipeId);
 
-            // Delete all files in the directory
-            try (Stream<Path> paths = Files.list(photosDir)) {
-                paths.filter(Files::isRegularFile)
-                        .forEach(path -> {
-                            try {
-                                Files.delete(path);
-                            } catch (IOException e) {
-                                // Log error but continue
-                            }
-                        });
-            }
-
-            // Delete the directory itself
-            Files.deleteIfExists(photosDir);
-
-            // Clear recipe's imageUrls and update database
-            Optional<Recipe> recipeOpt = recipeService.getRecipeById(recipeId);
-            if (recipeOpt.isPresent()) {
-                Recipe recipe = recipeOpt.get();
-                
-                // Ensure imageUrls list is initialized
-                if (recipe.getImageUrls() != null) {
-                    recipe.getImageUrls().clear();
-                    // Save to database - this will clear the recipe_images table entries
-                    recipeService.saveRecipe(recipe);
-                }
-            }
+            // Invalidate the cached recipe JSON - it contains the photo filenames
+            recipeResponseCache.invalidate(recipeId);
 
             logger.info("Successfully deleted all photos for recipe ID: {}", recipeId);
             return true;
@@ -0,0 +1,340 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.StoredPhoto;
+import com.project.dass.Service.PhotoStore;
+import com.project.dass.Service.PhotoVariantService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Objects live at {@code photos/objects/{h0h1}/{h2h3}/{sha256}{ext}}: two levels of 256 folders, so no folder
+ * grows past a few thousand entries. A photo in a recipe's folder is a hard link to its object, named
+ * {@code {prefix}{sha256}{ext}}, so the same image uploaded to several recipes or steps takes disk space and
+ * page cache once, and its resized variants (generated next to the object) are shared too.
+ * <p>
+ * The link count of an object is its reference count. The file system keeps it, so it cannot drift from the
+ * recipe folders: when a delete leaves the object as its only name, the object and its variants are removed.
+ * Where the link count cannot be read (non-POSIX file systems) objects are kept. Linking, recording and
+ * collecting an object run under a lock striped by hash, so a delete cannot remove an object (or a failed
+ * upload a link) that a concurrent upload of the same bytes is using.
+ */
+@Service
+public class PhotoStoreImpl implements PhotoStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoStoreImpl.class);
+
+    private static final String OBJECTS = "objects";
+    // {prefix}{sha256}{ext}: the object is found from the name, without reading the file
+    private static final Pattern ADDRESSED_NAME = Pattern.compile("^(?:\\d+_)?([0-9a-f]{64})(\\.[a-z]+)$");
+    // Variants generated next to photos named before content addressing
+    private static final Pattern VARIANT_NAME = Pattern.compile("_w\\d+\\.[^.]+$");
+    private static final Pattern RECIPE_FOLDER = Pattern.compile("\\d+");
+    private static final int LOCK_STRIPES = 64;
+
+    private final PhotoVariantService photoVariantService;
+    private final Path root;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public PhotoStoreImpl(PhotoVariantService photoVariantService,
+                          @Value("${photos.directory:photos}") String photosDirectory) {
+        this.photoVariantService = photoVariantService;
+        // The backend folder (current working directory), as for every photo path
+        this.root = Paths.get(System.getProperty("user.dir"), photosDirectory);
+        Arrays.setAll(locks, i -> new Object());
+    }
+
+    @Override
+    public Optional<StoredPhoto> store(Long recipeId, String prefix, InputStream content, long maxBytes,
+                                       Predicate<StoredPhoto> record) throws IOException {
+        // The temporary file is on the objects' file system, so it can be moved into place atomically
+        Optional<PhotoUploads.Upload> upload = PhotoUploads.write(content, root.resolve(OBJECTS), maxBytes);
+        if (upload.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String hash = upload.get().sha256();
+        Path object = objectPath(hash, upload.get().extension());
+        String filename = prefix + hash + upload.get().extension();
+        Path photo = locate(recipeId, filename);
+        StoredPhoto stored = new StoredPhoto(filename, photo, upload.get().size(), hash, true);
+        synchronized (lock(hash)) {
+            boolean created;
+            try {
+                if (Files.exists(object)) {
+                    logger.debug("Photo {} is already stored, linking it into recipe ID {}", hash, recipeId);
+                } else {
+                    Files.createDirectories(object.getParent());
+                    Files.move(upload.get().path(), object, StandardCopyOption.ATOMIC_MOVE);
+                }
+                // false if the recipe's folder already has this photo (recorded by an earlier upload)
+                created = link(photo, object);
+            } finally {
+                // Left over when the object already existed
+                Files.deleteIfExists(upload.get().path());
+            }
+
+            // Still under the lock: an upload of the same bytes to the same recipe waits here, so it either
+            // finds the link recorded or creates it again, and never shares a link that is removed below
+            boolean recorded = false;
+            try {
+                recorded = record.test(stored);
+            } finally {
+                if (!recorded && created) {
+                    delete(recipeId, filename);
+                }
+            }
+            return Optional.of(recorded ? stored
+                    : new StoredPhoto(filename, photo, upload.get().size(), hash, false));
+        }
+    }
+
+    @Override
+    public Path locate(Long recipeId, String filename) {
+        return root.resolve(String.valueOf(recipeId)).resolve(filename);
+    }
+
+    @Override
+    public Path canonical(Path photo) {
+        Matcher addressed = ADDRESSED_NAME.matcher(photo.getFileName().toString());
+        return addressed.matches() ? objectPath(addressed.group(1), addressed.group(2)) : photo;
+    }
+
+    @Override
+    public boolean delete(Long recipeId, String filename) throws IOException {
+        Path photo = locate(recipeId, filename);
+        if (!Files.isRegularFile(photo, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+
+        Matcher addressed = ADDRESSED_NAME.matcher(filename);
+        if (addressed.matches()) {
+            String hash = addressed.group(1);
+            synchronized (lock(hash)) {
+                Files.delete(photo);
+                collect(objectPath(hash, addressed.group(2)));
+            }
+            removeIfEmpty(photo.getParent());
+            return true;
+        }
+
+        // Named before content addressing: its variants are next to it, and its object (if it was migrated)
+        // is found by hashing it. The migration may be linking it right now, so it is deleted under the lock
+        String hash = linkCount(photo) == -1 ? null : PhotoUploads.sha256(photo);
+        if (hash == null) {
+            Files.delete(photo);
+        } else {
+            synchronized (lock(hash)) {
+                Files.delete(photo);
+                collect(objectPath(hash, legacyExtension(filename)));
+            }
+        }
+        photoVariantService.deleteVariants(photo);
+        removeIfEmpty(photo.getParent());
+        return true;
+    }
+
+    @Override
+    public void deleteAll(Long recipeId) throws IOException {
+        Path folder = root.resolve(String.valueOf(recipeId));
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+
+        List<String> filenames;
+        try (Stream<Path> files = Files.list(folder)) {
+            filenames = files.filter(Files::isRegularFile)
+                    .map(file -> file.getFileName().toString())
+                    .toList();
+        }
+        for (String filename : filenames) {
+            try {
+                delete(recipeId, filename);
+            } catch (IOException e) {
+                // Log error but continue
+                logger.warn("Failed to delete photo {} of recipe ID {}: {}", filename, recipeId, e.getMessage());
+            }
+        }
+
+        // Delete the directory itself
+        Files.deleteIfExists(folder);
+    }
+
+    @Override
+    public int migrate() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+
+        List<Path> folders;
+        try (Stream<Path> entries = Files.list(root)) {
+            folders = entries.filter(Files::isDirectory)
+                    .filter(folder -> RECIPE_FOLDER.matcher(folder.getFileName().toString()).matches())
+                    .toList();
+        }
+
+        int migrated = 0;
+        for (Path folder : folders) {
+            List<Path> photos;
+            try (Stream<Path> files = Files.list(folder)) {
+                photos = files.filter(Files::isRegularFile)
+                        .filter(file -> isLegacyPhoto(file.getFileName().toString()))
+                        .toList();
+            }
+            for (Path photo : photos) {
+                String hash;
+                try {
+                    // Already linked to its object (or link counts are not available)
+                    if (linkCount(photo) != 1) {
+                        continue;
+                    }
+                    hash = PhotoUploads.sha256(photo);
+                } catch (NoSuchFileException e) {
+                    // Deleted since the folder was listed: the migration runs while photos are served
+                    continue;
+                }
+                String name = photo.getFileName().toString();
+                Path object = objectPath(hash, legacyExtension(name));
+                synchronized (lock(hash)) {
+                    // Checked again now that deletes of this content wait for us
+                    if (!Files.exists(photo, LinkOption.NOFOLLOW_LINKS) || linkCount(photo) != 1) {
+                        continue;
+                    }
+                    if (Files.exists(object)) {
+                        // The same bytes are already stored: swap the copy for a link in one rename
+                        Path temp = folder.resolve("." + name + ".link");
+                        Files.deleteIfExists(temp);
+                        Files.createLink(temp, object);
+                        Files.move(temp, photo, StandardCopyOption.ATOMIC_MOVE);
+                    } else {
+                        // The file becomes the object, under a second name
+                        Files.createDirectories(object.getParent());
+                        Files.createLink(object, photo);
+                    }
+                }
+                migrated++;
+            }
+        }
+        return migrated;
+    }
+
+    @Override
+    public int sweepUploads(Instant before) throws IOException {
+        Path objects = root.resolve(OBJECTS);
+        if (!Files.isDirectory(objects)) {
+            return 0;
+        }
+
+        List<Path> uploads;
+        try (Stream<Path> files = Files.list(objects)) {
+            uploads = files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(PhotoUploads.TEMP_PREFIX) && name.endsWith(PhotoUploads.TEMP_SUFFIX);
+            }).toList();
+        }
+
+        int swept = 0;
+        for (Path upload : uploads) {
+            try {
+                if (Files.getLastModifiedTime(upload, LinkOption.NOFOLLOW_LINKS).toInstant().isBefore(before)
+                        && Files.deleteIfExists(upload)) {
+                    swept++;
+                }
+            } catch (NoSuchFileException e) {
+                // Moved into place or deleted by its upload meanwhile
+            }
+        }
+        return swept;
+    }
+
+    // Called under the object's lock, after one of its links is deleted
+    private void collect(Path object) throws IOException {
+        try {
+            if (linkCount(object) != 1) {
+                return;
+            }
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        Files.deleteIfExists(object);
+        photoVariantService.deleteVariants(object);
+        logger.debug("Deleted photo object {}, no photo uses it anymore", object.getFileName());
+    }
+
+    // false if the recipe's folder already has this photo
+    private static boolean link(Path photo, Path object) throws IOException {
+        try {
+            try {
+                Files.createLink(photo, object);
+            } catch (NoSuchFileException e) {
+                // The recipe's first photo, or its folder was just removed by the delete of its last one
+                Files.createDirectories(photo.getParent());
+                Files.createLink(photo, object);
+            }
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        }
+    }
+
+    // A recipe without photos has no folder
+    private static void removeIfEmpty(Path folder) {
+        try {
+            Files.deleteIfExists(folder);
+        } catch (DirectoryNotEmptyException e) {
+            // Other photos are still there
+        } catch (IOException e) {
+            logger.debug("Failed to remove photo folder {}: {}", folder.getFileName(), e.getMessage());
+        }
+    }
+
+    // -1 where the file system does not report link counts
+    private static int linkCount(Path file) throws IOException {
+        try {
+            return ((Number) Files.getAttribute(file, "unix:nlink", LinkOption.NOFOLLOW_LINKS)).intValue();
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isLegacyPhoto(String name) {
+        return !name.startsWith(".")
+                && !ADDRESSED_NAME.matcher(name).matches()
+                && !VARIANT_NAME.matcher(name).find();
+    }
+
+    // Legacy names keep the client's extension; the objects use the same one as new uploads of that type
+    private static String legacyExtension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        String extension = dot < 0 ? "" : filename.substring(dot).toLowerCase();
+        return ".jpeg".equals(extension) ? ".jpg" : extension;
+    }
+
+    private Path objectPath(String hash, String extension) {
+        return root.resolve(OBJECTS).resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + extension);
+    }
+
+    private Object lock(String hash) {
+        return locks[Integer.parseInt(hash.substring(0, 2), 16) % LOCK_STRIPES];
+    }
+}
@@ -0,0 +1,141 @@
+package com.project.dass.ServiceImpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Writes an uploaded photo to a temporary file in a single pass over the stream: the first bytes are checked
+ * against the image signatures (the extension comes from them, not from the client), and the content is
+ * hashed as it is written, so the caller can move the file to its content address. A rejected or failed
+ * upload leaves nothing behind.
+ */
+final class PhotoUploads {
+
+    /**
+     * A photo written to a temporary file
+     *
+     * @param path      The temporary file (the caller moves or deletes it)
+     * @param extension The extension of the detected image type
+     * @param size      The size in bytes
+     * @param sha256    The SHA-256 of the content, in hex
+     */
+    record Upload(Path path, String extension, long size, String sha256) {
+    }
+
+    // Temporary files are named {TEMP_PREFIX}{random}{TEMP_SUFFIX}
+    static final String TEMP_PREFIX = ".upload-";
+    static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Enough for the longest signature checked (RIFF....WEBP)
+    private static final int HEADER_SIZE = 12;
+
+    private PhotoUploads() {
+    }
+
+    /**
+     * @param content   The photo bytes (read to the end, not closed)
+     * @param directory Where the temporary file is created (on the same file system as its destination)
+     * @param maxBytes  The largest accepted photo
+     * @return The written photo, or empty if the content is not a supported image or is larger than maxBytes
+     */
+    static Optional<Upload> write(InputStream content, Path directory, long maxBytes) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int headerLength = content.readNBytes(buffer, 0, HEADER_SIZE);
+        String extension = extension(buffer, headerLength);
+        if (extension == null) {
+            return Optional.empty();
+        }
+
+        MessageDigest digest = sha256();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX);
+        boolean written = false;
+        try {
+            long size = headerLength;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                out.write(buffer, 0, headerLength);
+                digest.update(buffer, 0, headerLength);
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        return Optional.empty();
+                    }
+                    out.write(buffer, 0, read);
+                    digest.update(buffer, 0, read);
+                }
+            }
+            written = true;
+            return Optional.of(new Upload(temp, extension, size, HexFormat.of().formatHex(digest.digest())));
+        } finally {
+            if (!written) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * The SHA-256 of a stored file, in hex
+     */
+    static String sha256(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // The extension for the image signature at the start of the content, or null for anything else
+    private static String extension(byte[] header, int length) {
+        if (startsWith(header, length, 0xFF, 0xD8, 0xFF)) {
+            return ".jpg";
+        }
+        if (startsWith(header, length, 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n')) {
+            return ".png";
+        }
+        if (startsWith(header, length, 'G', 'I', 'F', '8', '7', 'a') || startsWith(header, length, 'G', 'I', 'F', '8', '9', 'a')) {
+            return ".gif";
+        }
+        if (startsWith(header, length, 'R', 'I', 'F', 'F') && length >= 12
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return ".webp";
+        }
+        if (startsWith(header, length, 'B', 'M')) {
+            return ".bmp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int length, int... signature) {
+        if (length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((header[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.PhotoFile;
+import com.project.dass.Service.PhotoVariantService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Variants are named {@code {original name}_w{width}{extension}} and live next to the original in
+ * {@code photos/{recipeId}/}. A few worker threads with a bounded queue do the resizing: decoding a 10 MB
+ * photo can take a hundred MB of heap, so the number of threads bounds the memory, and a full queue
+ * drops the job instead of blocking the upload (the next {@code ?w=} request for that photo queues it again).
+ * <p>
+ * A variant is written to a temporary file and moved into place, so a reader never sees a partial file.
+ * Widths the original is not wider than get a copy of the original, so a missing variant always means
+ * "not generated yet".
+ */
+@Service
+public class PhotoVariantServiceImpl implements PhotoVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoVariantServiceImpl.class);
+
+    // Formats ImageIO can read and write: webp has no ImageIO plugin, and a GIF variant would lose its animation
+    private static final Map<String, String> FORMATS = Map.of(
+            ".jpg", "jpeg",
+            ".jpeg", "jpeg",
+            ".png", "png",
+            ".bmp", "bmp"
+    );
+
+    // Ascending
+    private final int[] widths;
+    private final ThreadPoolExecutor workers;
+
+    // Originals queued or being resized, so that repeated requests do not queue them again
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+    // Originals that could not be decoded: served as they are, not retried until restart
+    private final Set<Path> failed = ConcurrentHashMap.newKeySet();
+
+    public PhotoVariantServiceImpl(@Value("${photos.variants.widths:320,640,1280}") int[] widths,
+                                   @Value("${photos.variants.threads:2}") int threads,
+                                   @Value("${photos.variants.queue-capacity:100}") int queueCapacity) {
+        this.widths = IntStream.of(widths).filter(width -> width > 0).distinct().sorted().toArray();
+        AtomicInteger threadIds = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "photo-variants-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public void generateVariants(Path original) {
+        if (widths.length == 0 || format(original) == null || !pending.add(original)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    writeVariants(original);
+                } finally {
+                    pending.remove(original);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(original);
+            logger.warn("Photo variant queue is full, skipped {}", original.getFileName());
+        }
+    }
+
+    @Override
+    public PhotoFile resolve(PhotoFile original, Integer width) {
+        if (width == null) {
+            return original;
+        }
+        if (width <= 0) {
+            throw new IllegalArgumentException("Photo width must be positive");
+        }
+        Path path = original.path();
+        int variantWidth = variantWidth(width);
+        if (variantWidth < 0 || format(path) == null) {
+            return original;
+        }
+
+        Path variant = variantPath(path, variantWidth);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(variant, BasicFileAttributes.class);
+            return new PhotoFile(variant, attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (NoSuchFileException e) {
+            // Not ready yet
+        } catch (IOException e) {
+            logger.warn("Failed to read photo variant {}: {}", variant.getFileName(), e.getMessage());
+        }
+
+        if (!failed.contains(path)) {
+            generateVariants(path);
+        }
+        return original.asProvisional();
+    }
+
+    @Override
+    public void deleteVariants(Path original) {
+        failed.remove(original);
+        for (int width : widths) {
+            try {
+                Files.deleteIfExists(variantPath(original, width));
+            } catch (IOException e) {
+                logger.warn("Failed to delete photo variant {} of {}: {}", width, original.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    private void writeVariants(Path original) {
+        String format = format(original);
+        try {
+            BufferedImage image = ImageIO.read(original.toFile());
+            if (image == null) {
+                failed.add(original);
+                logger.warn("Cannot decode photo {}, its original will be served for every width", original.getFileName());
+                return;
+            }
+            boolean alpha = "png".equals(format) && image.getColorModel().hasAlpha();
+
+            // Largest first: each variant is scaled down from the previous one
+            BufferedImage source = image;
+            for (int i = widths.length - 1; i >= 0; i--) {
+                Path variant = variantPath(original, widths[i]);
+                if (Files.exists(variant)) {
+                    continue;
+                }
+                Path temp = Files.createTempFile(original.getParent(), ".", ".tmp");
+                try {
+                    if (image.getWidth() <= widths[i]) {
+                        Files.copy(original, temp, StandardCopyOption.REPLACE_EXISTING);
+                    } else {
+                        source = scale(source, widths[i], alpha);
+                        if (!ImageIO.write(source, format, temp.toFile())) {
+                            throw new IOException("No ImageIO writer for " + format);
+                        }
+                    }
+                    Files.move(temp, variant, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            logger.debug("Generated variants of photo {}", original.getFileName());
+        } catch (IOException | RuntimeException e) {
+            failed.add(original);
+            logger.warn("Failed to generate variants of photo {}: {}", original.getFileName(), e.getMessage());
+        }
+
+        // The photo was deleted while it was being resized: do not leave its variants behind
+        if (!Files.exists(original)) {
+            deleteVariants(original);
+        }
+    }
+
+    // At most halving per pass: a single bilinear pass down to a small width would skip most source pixels
+    private static BufferedImage scale(BufferedImage image, int width, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+        BufferedImage current = image;
+        do {
+            int passWidth = Math.max(current.getWidth() / 2, width);
+            int passHeight = passWidth == width ? height : Math.max(current.getHeight() / 2, height);
+            BufferedImage next = new BufferedImage(passWidth, passHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, passWidth, passHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (current.getWidth() > width);
+        return current;
+    }
+
+    // The smallest configured width at least as wide as requested, or -1 if the original is needed
+    private int variantWidth(int requested) {
+        for (int width : widths) {
+            if (width >= requested) {
+                return width;
+            }
+        }
+        return -1;
+    }
+
+    private static Path variantPath(Path original, int width) {
+        String name = original.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return original.resolveSibling(name.substring(0, dot) + "_w" + width + name.substring(dot));
+    }
+
+    private static String format(Path original) {
+        String name = original.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? null : FORMATS.get(name.substring(dot).toLowerCase());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+}
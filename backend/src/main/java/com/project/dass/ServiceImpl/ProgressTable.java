@@ -0,0 +1,103 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.Recipe;
+import com.project.dass.Model.RecipeStep;
+import com.project.dass.Model.StepProgress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Οι αθροιστικές διάρκειες των βημάτων μιας συνταγής, ταξινομημένες κατά stepOrder.
+ * Η πρόοδος μετά από ένα βήμα είναι ένα binary search αντί για σάρωση όλων των βημάτων.
+ */
+final class ProgressTable {
+
+    private final int[] stepOrders;
+    // cumulativeMinutes[i]: άθροισμα των διαρκειών των βημάτων 0..i
+    private final long[] cumulativeMinutes;
+    private final int totalTimeMinutes;
+
+    private ProgressTable(int[] stepOrders, long[] cumulativeMinutes, int totalTimeMinutes) {
+        this.stepOrders = stepOrders;
+        this.cumulativeMinutes = cumulativeMinutes;
+        this.totalTimeMinutes = totalTimeMinutes;
+    }
+
+    // stepOrders σε αύξουσα σειρά, με τις αντίστοιχες διάρκειες (null = 0)
+    static ProgressTable of(Integer totalTimeMinutes, int[] stepOrders, Integer[] durations) {
+        long[] cumulative = new long[stepOrders.length];
+        long sum = 0;
+        for (int i = 0; i < stepOrders.length; i++) {
+            sum += durations[i] == null ? 0 : durations[i];
+            cumulative[i] = sum;
+        }
+        return new ProgressTable(stepOrders, cumulative, totalTimeMinutes == null ? 0 : totalTimeMinutes);
+    }
+
+    static ProgressTable of(Recipe recipe) {
+        List<RecipeStep> steps = recipe.getSteps() == null ? List.of() : recipe.getSteps().stream()
+                .sorted(Comparator.comparing(RecipeStep::getStepOrder))
+                .toList();
+        int[] stepOrders = new int[steps.size()];
+        Integer[] durations = new Integer[steps.size()];
+        for (int i = 0; i < steps.size(); i++) {
+            stepOrders[i] = steps.get(i).getStepOrder();
+            durations[i] = steps.get(i).getDurationMinutes();
+        }
+        return of(recipe.getTotalTimeMinutes(), stepOrders, durations);
+    }
+
+    double progressAfter(int completedStepOrder) {
+        // Το τελευταίο βήμα με stepOrder <= completedStepOrder (και τα διπλά stepOrder μετράνε όλα)
+        int index = upperBound(completedStepOrder) - 1;
+        return index < 0 ? 0.0 : percent(cumulativeMinutes[index]);
+    }
+
+    List<StepProgress> curve() {
+        List<StepProgress> curve = new ArrayList<>(stepOrders.length);
+        for (int i = 0; i < stepOrders.length; i++) {
+            if (i + 1 < stepOrders.length && stepOrders[i + 1] == stepOrders[i]) {
+                continue; // το ίδιο stepOrder: κρατάμε το σημείο μετά το τελευταίο
+            }
+            curve.add(new StepProgress(stepOrders[i], percent(cumulativeMinutes[i])));
+        }
+        return curve;
+    }
+
+    // Η διάρκεια ενός βήματος (μαζί με όσα έχουν το ίδιο stepOrder), ή empty αν δεν υπάρχει τέτοιο βήμα
+    Optional<Long> minutesOf(int stepOrder) {
+        int end = upperBound(stepOrder);
+        if (end == 0 || stepOrders[end - 1] != stepOrder) {
+            return Optional.empty();
+        }
+        int start = end - 1;
+        while (start > 0 && stepOrders[start - 1] == stepOrder) {
+            start--;
+        }
+        long before = start == 0 ? 0 : cumulativeMinutes[start - 1];
+        return Optional.of(cumulativeMinutes[end - 1] - before);
+    }
+
+    private int upperBound(int stepOrder) {
+        int index = Arrays.binarySearch(stepOrders, stepOrder);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index < stepOrders.length && stepOrders[index] == stepOrder) {
+            index++;
+        }
+        return index;
+    }
+
+    private double percent(long completedMinutes) {
+        if (totalTimeMinutes == 0) {
+            return 0.0; // Αποφυγή διαίρεσης με το μηδέν
+        }
+        // Το πολύ 100% (σε περίπτωση λάθους στους χρόνους)
+        return Math.min((double) completedMinutes / totalTimeMinutes * 100.0, 100.0);
+    }
+}
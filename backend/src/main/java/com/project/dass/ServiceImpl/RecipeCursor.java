@@ -0,0 +1,62 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.RecipeSort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque cursor token για το keyset pagination.
+ * Κωδικοποιεί τη σειρά ταξινόμησης και το κλειδί (dateCreated, id) της τελευταίας
+ * εγγραφής (το dateCreated μπορεί να είναι null), ώστε η επόμενη σελίδα να είναι σταθερή ακόμη κι αν προστεθούν νέες συνταγές.
+ */
+record RecipeCursor(RecipeSort sort, Long lastId, Long lastDateMillis) {
+
+    private static final String SEPARATOR = ":";
+
+    Date lastDate() {
+        return lastDateMillis == null ? null : new Date(lastDateMillis);
+    }
+
+    String encode() {
+        String raw = sort.name() + SEPARATOR + lastId + SEPARATOR + (lastDateMillis == null ? "" : lastDateMillis);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException αν το token είναι άκυρο ή δεν αντιστοιχεί στη ζητούμενη ταξινόμηση
+     */
+    static RecipeCursor decode(String token, RecipeSort expectedSort) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+
+        String[] parts = raw.split(SEPARATOR, -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+
+        RecipeSort sort;
+        try {
+            sort = RecipeSort.valueOf(parts[0]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        if (sort != expectedSort) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + sort + ", not " + expectedSort);
+        }
+
+        try {
+            Long lastId = Long.valueOf(parts[1]);
+            // Κενό = η τελευταία συνταγή δεν είχε ημερομηνία
+            Long lastDateMillis = parts[2].isEmpty() ? null : Long.valueOf(parts[2]);
+            return new RecipeCursor(sort, lastId, lastDateMillis);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.Recipe;
+import com.project.dass.Repos.RecipeRepository;
+import com.project.dass.Service.RecipeExportService;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+public class RecipeExportServiceImpl implements RecipeExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeExportServiceImpl.class);
+
+    // Όσες συνταγές φέρνει ο driver ανά round trip, τόσες κρατάμε και στο persistence context
+    private static final int CHUNK_SIZE = Integer.parseInt(RecipeRepository.EXPORT_FETCH_SIZE);
+
+    private final RecipeRepository recipeRepository;
+    private final EntityManager entityManager;
+    private final JsonMapper jsonMapper;
+
+    public RecipeExportServiceImpl(RecipeRepository recipeRepository, EntityManager entityManager, JsonMapper jsonMapper) {
+        this.recipeRepository = recipeRepository;
+        this.entityManager = entityManager;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    @Transactional // Το stream χρειάζεται ανοιχτό transaction (και connection) μέχρι το τέλος
+    public long exportNdjson(OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        // Ένα πλήρες export δεν πρέπει να γεμίσει (και να αδειάσει) το second-level cache
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+
+        long exported = 0;
+        List<Recipe> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (Stream<Recipe> recipes = recipeRepository.streamAllForExport()) {
+            Iterator<Recipe> iterator = recipes.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE) {
+                    exported += writeChunk(chunk, out);
+                }
+            }
+            exported += writeChunk(chunk, out);
+        }
+        out.flush();
+
+        logger.info("Exported {} recipes in {} ms", exported, (System.nanoTime() - start) / 1_000_000);
+        return exported;
+    }
+
+    private int writeChunk(List<Recipe> chunk, OutputStream out) throws IOException {
+        // Με το hibernate.default_batch_fetch_size το πρώτο initialize κάθε collection
+        // φορτώνει το ίδιο collection για όλες τις συνταγές του chunk: λίγα queries ανά chunk, όχι N+1
+        for (Recipe recipe : chunk) {
+            Hibernate.initialize(recipe.getIngredients());
+            Hibernate.initialize(recipe.getImageUrls());
+            recipe.getSteps().forEach(step -> Hibernate.initialize(step.getIngredients()));
+        }
+        for (Recipe recipe : chunk) {
+            out.write(jsonMapper.writeValueAsBytes(recipe));
+            out.write('\n');
+        }
+
+        int written = chunk.size();
+        chunk.clear();
+        // Detach: το persistence context δεν μεγαλώνει όσο προχωρά το export
+        entityManager.clear();
+        return written;
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.DifficultyLevel;
+import com.project.dass.Model.RecipeCategory;
+import com.project.dass.Model.RecipeFacetValues;
+import com.project.dass.Model.RecipeFacets;
+import com.project.dass.Repos.RecipeRepository;
+import com.project.dass.Service.RecipeFacetCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class RecipeFacetCounterImpl implements RecipeFacetCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeFacetCounterImpl.class);
+
+    private final RecipeRepository recipeRepository;
+
+    // Τα EnumMaps γεμίζουν μία φορά στον constructor και μετά αλλάζουν μόνο οι AtomicLong,
+    // οπότε διαβάζονται με ασφάλεια από πολλά threads
+    private final Map<RecipeCategory, AtomicLong> categories = new EnumMap<>(RecipeCategory.class);
+    private final Map<DifficultyLevel, AtomicLong> difficulties = new EnumMap<>(DifficultyLevel.class);
+    private final AtomicLong total = new AtomicLong();
+
+    public RecipeFacetCounterImpl(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+        for (RecipeCategory category : RecipeCategory.values()) {
+            categories.put(category, new AtomicLong());
+        }
+        for (DifficultyLevel difficulty : DifficultyLevel.values()) {
+            difficulties.put(difficulty, new AtomicLong());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        reseed();
+    }
+
+    @Override
+    public RecipeFacets getFacets() {
+        Map<RecipeCategory, Long> categoryCounts = new EnumMap<>(RecipeCategory.class);
+        categories.forEach((category, count) -> categoryCounts.put(category, count.get()));
+        Map<DifficultyLevel, Long> difficultyCounts = new EnumMap<>(DifficultyLevel.class);
+        difficulties.forEach((difficulty, count) -> difficultyCounts.put(difficulty, count.get()));
+        return new RecipeFacets(categoryCounts, difficultyCounts, total.get());
+    }
+
+    @Override
+    public void recordChange(RecipeFacetValues before, RecipeFacetValues after) {
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            if (before != null) {
+                add(before, -1);
+            }
+            if (after != null) {
+                add(after, 1);
+            }
+        });
+    }
+
+    private void add(RecipeFacetValues values, long delta) {
+        if (values.category() != null) {
+            categories.get(values.category()).addAndGet(delta);
+        }
+        if (values.difficulty() != null) {
+            difficulties.get(values.difficulty()).addAndGet(delta);
+        }
+        total.addAndGet(delta);
+    }
+
+    @Override
+    public void reseed() {
+        Map<RecipeCategory, Long> categoryCounts = new EnumMap<>(RecipeCategory.class);
+        Map<DifficultyLevel, Long> difficultyCounts = new EnumMap<>(DifficultyLevel.class);
+        long recipes = 0;
+        // Ένα query: (category, difficulty, count) για κάθε συνδυασμό
+        for (Object[] row : recipeRepository.countByCategoryAndDifficulty()) {
+            long count = (Long) row[2];
+            if (row[0] != null) {
+                categoryCounts.merge((RecipeCategory) row[0], count, Long::sum);
+            }
+            if (row[1] != null) {
+                difficultyCounts.merge((DifficultyLevel) row[1], count, Long::sum);
+            }
+            recipes += count;
+        }
+
+        categories.forEach((category, counter) -> counter.set(categoryCounts.getOrDefault(category, 0L)));
+        difficulties.forEach((difficulty, counter) -> counter.set(difficultyCounts.getOrDefault(difficulty, 0L)));
+        total.set(recipes);
+        logger.info("Seeded recipe facet counters: {} recipes", recipes);
+    }
+}
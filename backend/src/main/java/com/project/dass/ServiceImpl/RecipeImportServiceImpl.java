@@ -0,0 +1,188 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.ImportError;
+import com.project.dass.Model.ImportReport;
+import com.project.dass.Model.Ingredient;
+import com.project.dass.Model.Recipe;
+import com.project.dass.Model.RecipeFacetValues;
+import com.project.dass.Model.RecipeStep;
+import com.project.dass.Service.IngredientMatchIndex;
+import com.project.dass.Service.RecipeFacetCounter;
+import com.project.dass.Service.RecipeImportService;
+import com.project.dass.Service.RecipeSearchIndex;
+import com.project.dass.Service.RecipeSuggestIndex;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class RecipeImportServiceImpl implements RecipeImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeImportServiceImpl.class);
+
+    // Το report κρατά μόνο τόσα σφάλματα, ώστε ένα εντελώς λάθος αρχείο να μη γεμίσει τη μνήμη
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final IngredientMatchIndex ingredientMatchIndex;
+    private final RecipeSuggestIndex recipeSuggestIndex;
+    private final RecipeFacetCounter recipeFacetCounter;
+
+    @Value("${recipes.import.chunk-size:500}")
+    private int defaultChunkSize;
+
+    public RecipeImportServiceImpl(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                   JsonMapper jsonMapper, RecipeSearchIndex recipeSearchIndex,
+                                   IngredientMatchIndex ingredientMatchIndex, RecipeSuggestIndex recipeSuggestIndex,
+                                   RecipeFacetCounter recipeFacetCounter) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jsonMapper = jsonMapper;
+        this.recipeSearchIndex = recipeSearchIndex;
+        this.ingredientMatchIndex = ingredientMatchIndex;
+        this.recipeSuggestIndex = recipeSuggestIndex;
+        this.recipeFacetCounter = recipeFacetCounter;
+    }
+
+    // Μία γραμμή του αρχείου: κρατάμε και το JSON για να την ξαναδιαβάσουμε αν αποτύχει το chunk
+    private record Line(long number, String json, Recipe recipe) {
+    }
+
+    private static final class Progress {
+        private long imported;
+        private long failed;
+        private final List<ImportError> errors = new ArrayList<>();
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportError(line, message));
+            }
+        }
+    }
+
+    @Override
+    public ImportReport importNdjson(InputStream in, Integer chunkSize) throws IOException {
+        int size = chunkSize == null || chunkSize <= 0 ? defaultChunkSize : chunkSize;
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<Line> chunk = new ArrayList<>(size);
+        long lineNumber = 0;
+        String json;
+        while ((json = reader.readLine()) != null) {
+            lineNumber++;
+            if (json.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(new Line(lineNumber, json, jsonMapper.readValue(json, Recipe.class)));
+            } catch (JacksonException e) {
+                progress.fail(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (chunk.size() == size) {
+                importChunk(chunk, progress);
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, progress);
+
+        long elapsedNanos = System.nanoTime() - start;
+        double perSecond = elapsedNanos == 0 ? 0 : progress.imported * 1_000_000_000.0 / elapsedNanos;
+        logger.info("Imported {} recipes ({} failed) in {} ms, {} recipes/s",
+                progress.imported, progress.failed, elapsedNanos / 1_000_000, Math.round(perSecond));
+        return new ImportReport(progress.imported, progress.failed, elapsedNanos / 1_000_000,
+                perSecond, List.copyOf(progress.errors));
+    }
+
+    private void importChunk(List<Line> chunk, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            // Ένα transaction ανά chunk: τα inserts πάνε σε JDBC batches
+            persistInTransaction(chunk.stream().map(Line::recipe).toList());
+            progress.imported += chunk.size();
+        } catch (RuntimeException chunkFailure) {
+            // Ένα λάθος record ακυρώνει όλο το chunk: το ξαναπερνάμε ένα-ένα για να βρούμε ποιο
+            for (Line line : chunk) {
+                try {
+                    Recipe recipe = jsonMapper.readValue(line.json(), Recipe.class);
+                    persistInTransaction(List.of(recipe));
+                    progress.imported++;
+                } catch (RuntimeException e) {
+                    progress.fail(line.number(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+    }
+
+    private void persistInTransaction(List<Recipe> recipes) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                recipes.forEach(this::persist);
+                entityManager.flush();
+            });
+        } finally {
+            // Με το open-in-view το EntityManager ανήκει στο request και δεν κλείνει στο commit: χωρίς clear
+            // κάθε συνταγή θα έμενε managed ως το τέλος του import και κάθε flush θα έλεγχε όλες τις προηγούμενες
+            entityManager.clear();
+        }
+    }
+
+    private void persist(Recipe recipe) {
+        // Οι συνταγές εισάγονται πάντα ως νέες: τα ids του αρχείου ανήκουν στο σύστημα από όπου έγινε το export
+        recipe.setId(null);
+        recipe.setVersion(null);
+        if (recipe.getIngredients() == null) {
+            recipe.setIngredients(new ArrayList<>());
+        }
+        if (recipe.getSteps() == null) {
+            recipe.setSteps(new ArrayList<>());
+        }
+        if (recipe.getImageUrls() == null) {
+            recipe.setImageUrls(new ArrayList<>());
+        }
+
+        // Τα υλικά των βημάτων γίνονται αναφορές στα υλικά της συνταγής (με το id του αρχείου ή με το περιεχόμενο)
+        IngredientLinker linker = new IngredientLinker(recipe.getIngredients());
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            ingredient.setId(null);
+            ingredient.setRecipe(recipe);
+        }
+
+        for (RecipeStep step : recipe.getSteps()) {
+            step.setId(null);
+            step.setRecipe(recipe);
+            step.setIngredients(step.getIngredients() == null ? new ArrayList<>() : linker.link(step.getIngredients()));
+        }
+
+        entityManager.persist(recipe);
+
+        // Ίδιες ενημερώσεις με το RecipeServiceImpl.saveRecipe, εφαρμόζονται μετά το commit του chunk
+        recipeSearchIndex.index(recipe);
+        ingredientMatchIndex.index(recipe);
+        recipeSuggestIndex.index(recipe);
+        recipeFacetCounter.recordChange(null, RecipeFacetValues.of(recipe));
+    }
+}
@@ -0,0 +1,105 @@
+package com.project.dass.ServiceImpl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.dass.Model.StepProgress;
+import com.project.dass.Repos.RecipeRepository;
+import com.project.dass.Service.RecipeProgressService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class RecipeProgressServiceImpl implements RecipeProgressService {
+
+    private final RecipeRepository recipeRepository;
+
+    // Λίγα bytes ανά συνταγή (δύο πίνακες με ένα στοιχείο ανά βήμα), οπότε αρκεί όριο σε πλήθος
+    private final Cache<Long, ProgressTable> cache;
+
+    // Όπως στο RecipeResponseCacheImpl: ένα load που ξεκίνησε πριν από μια εγγραφή δεν μπαίνει στο cache
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public RecipeProgressServiceImpl(RecipeRepository recipeRepository,
+                                     @Value("${recipes.progress-cache.max-size:10000}") long maxSize) {
+        this.recipeRepository = recipeRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @Override
+    public Optional<Double> getProgress(Long recipeId, int completedStepOrder) {
+        return getOrLoad(recipeId).map(table -> table.progressAfter(completedStepOrder));
+    }
+
+    @Override
+    public Optional<List<StepProgress>> getProgressCurve(Long recipeId) {
+        return getOrLoad(recipeId).map(ProgressTable::curve);
+    }
+
+    @Override
+    public Optional<Long> getStepMinutes(Long recipeId, int stepOrder) {
+        return getOrLoad(recipeId).flatMap(table -> table.minutesOf(stepOrder));
+    }
+
+    @Override
+    public void invalidate(Long recipeId) {
+        if (recipeId == null) {
+            return;
+        }
+        evict(recipeId);
+
+        // Μετά το commit ξανά, για ένα load που διάβασε τα παλιά βήματα πριν το commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(recipeId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long recipeId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(recipeId);
+    }
+
+    private Optional<ProgressTable> getOrLoad(Long recipeId) {
+        ProgressTable cached = cache.getIfPresent(recipeId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long stamp = invalidations.get();
+        Optional<ProgressTable> loaded = load(recipeId);
+        if (loaded.isPresent() && invalidations.get() == stamp) {
+            cache.put(recipeId, loaded.get());
+        }
+        return loaded;
+    }
+
+    // Ένα query με μόνο τις στήλες που χρειάζονται, ήδη ταξινομημένες κατά stepOrder
+    private Optional<ProgressTable> load(Long recipeId) {
+        List<Object[]> rows = recipeRepository.findProgressRowsById(recipeId);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Integer totalTimeMinutes = (Integer) rows.get(0)[0];
+        int stepCount = rows.get(0)[1] == null ? 0 : rows.size();
+        int[] stepOrders = new int[stepCount];
+        Integer[] durations = new Integer[stepCount];
+        for (int i = 0; i < stepCount; i++) {
+            stepOrders[i] = (Integer) rows.get(i)[1];
+            durations[i] = (Integer) rows.get(i)[2];
+        }
+        return Optional.of(ProgressTable.of(totalTimeMinutes, stepOrders, durations));
+    }
+}
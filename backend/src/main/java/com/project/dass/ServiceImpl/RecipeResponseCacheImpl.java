@@ -0,0 +1,112 @@
+package com.project.dass.ServiceImpl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.dass.Model.CachedRecipeJson;
+import com.project.dass.Model.Recipe;
+import com.project.dass.Service.RecipeResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class RecipeResponseCacheImpl implements RecipeResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeResponseCacheImpl.class);
+
+    // Κάτω από αυτό το μέγεθος η συμπίεση δεν αξίζει τον κόπο
+    private static final int GZIP_THRESHOLD_BYTES = 1024;
+
+    private final JsonMapper jsonMapper;
+    private final boolean gzipEnabled;
+
+    // Caffeine: όριο σε bytes (weigher) με W-TinyLFU eviction
+    private final Cache<Long, CachedRecipeJson> cache;
+
+    // Αυξάνεται σε κάθε invalidation. Ένα load που ξεκίνησε πριν από μια εγγραφή
+    // δεν αποθηκεύει το (πιθανώς παλιό) JSON του στο cache.
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public RecipeResponseCacheImpl(JsonMapper jsonMapper,
+                                   @Value("${recipes.json-cache.max-size:64MB}") DataSize maxSize,
+                                   @Value("${recipes.json-cache.gzip:true}") boolean gzipEnabled) {
+        this.jsonMapper = jsonMapper;
+        this.gzipEnabled = gzipEnabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Long id, CachedRecipeJson value) -> value.sizeInBytes())
+                .build();
+    }
+
+    @Override
+    public Optional<CachedRecipeJson> getOrLoad(Long id, Supplier<Optional<Recipe>> loader) {
+        CachedRecipeJson cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long stamp = invalidations.get();
+        Optional<CachedRecipeJson> loaded = loader.get().map(this::encode);
+        if (loaded.isPresent() && invalidations.get() == stamp) {
+            cache.put(id, loaded.get());
+        }
+        return loaded;
+    }
+
+    @Override
+    public Optional<Long> getCachedVersion(Long id) {
+        return Optional.ofNullable(cache.getIfPresent(id)).map(CachedRecipeJson::version);
+    }
+
+    @Override
+    public void invalidate(Long id) {
+        if (id == null) {
+            return;
+        }
+        evict(id);
+
+        // Μέσα σε transaction ξανα-ακυρώνουμε μετά το commit, ώστε ένα GET που διάβασε
+        // τα παλιά δεδομένα πριν το commit να μην αφήσει stale JSON στο cache
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    private void evict(Long id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    private CachedRecipeJson encode(Recipe recipe) {
+        byte[] json = jsonMapper.writeValueAsBytes(recipe);
+        if (!gzipEnabled || json.length < GZIP_THRESHOLD_BYTES) {
+            return new CachedRecipeJson(recipe.getVersion(), json, null);
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            logger.warn("Failed to gzip recipe ID {}: {}", recipe.getId(), e.getMessage());
+            return new CachedRecipeJson(recipe.getVersion(), json, null);
+        }
+        return new CachedRecipeJson(recipe.getVersion(), json, buffer.toByteArray());
+    }
+}
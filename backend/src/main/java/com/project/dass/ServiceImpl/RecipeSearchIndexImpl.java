@@ -0,0 +1,266 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.Ingredient;
+import com.project.dass.Model.Recipe;
+import com.project.dass.Model.RecipeSearchMode;
+import com.project.dass.Model.RecipeStep;
+import com.project.dass.Repos.RecipeRepository;
+import com.project.dass.Service.RecipeSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Service
+public class RecipeSearchIndexImpl implements RecipeSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeSearchIndexImpl.class);
+
+    // Βάρη ανά πεδίο: ο τίτλος μετράει περισσότερο από τα υλικά και τα βήματα
+    private static final int TITLE_WEIGHT = 3;
+    private static final int INGREDIENT_WEIGHT = 2;
+    private static final int STEP_WEIGHT = 1;
+
+    // Ένα ταίριασμα ως πρόθεμα ("carb" -> "carbonara") μετράει λιγότερο από ολόκληρη λέξη
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+    // Όριο στους όρους που εξετάζουμε για ένα πολύ σύντομο πρόθεμα
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+
+    private final RecipeRepository recipeRepository;
+
+    // Με recipes.search.mode=fulltext το index δεν χρησιμοποιείται, οπότε ούτε χτίζεται ούτε ενημερώνεται
+    @Value("${recipes.search.mode:index}")
+    private RecipeSearchMode searchMode;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (recipeId -> βάρος)
+    private NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // recipeId -> (term -> βάρος), για την αφαίρεση/ενημέρωση μιας συνταγής
+    private Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    // Αλλαγές που έγιναν όσο έτρεχε ένα rebuild (null όταν δεν τρέχει rebuild)
+    private List<Map.Entry<Long, Map<String, Integer>>> changesDuringRebuild;
+    private volatile boolean ready;
+
+    public RecipeSearchIndexImpl(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    private boolean isEnabled() {
+        return searchMode == RecipeSearchMode.INDEX;
+    }
+
+    @Override
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = SearchText.tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = scoreToken(token, documentCount);
+                scores = scores == null ? tokenScores : intersect(scores, tokenScores);
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // TF-IDF για έναν όρο, με όλους τους όρους του index που ξεκινούν από αυτόν
+    private Map<Long, Double> scoreToken(String token, int documentCount) {
+        Map<Long, Double> tokenScores = new HashMap<>();
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Integer>> term
+                : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            double idf = Math.log(1.0 + (double) documentCount / term.getValue().size());
+            double factor = term.getKey().equals(token) ? 1.0 : PREFIX_MATCH_FACTOR;
+            term.getValue().forEach((recipeId, weight) ->
+                    tokenScores.merge(recipeId, weight * idf * factor, Math::max));
+        }
+        return tokenScores;
+    }
+
+    private static Map<Long, Double> intersect(Map<Long, Double> scores, Map<Long, Double> tokenScores) {
+        Map<Long, Double> result = new HashMap<>();
+        scores.forEach((recipeId, score) -> {
+            Double tokenScore = tokenScores.get(recipeId);
+            if (tokenScore != null) {
+                result.put(recipeId, score + tokenScore);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void index(Recipe recipe) {
+        if (!isEnabled() || recipe.getId() == null) {
+            return;
+        }
+
+        // Τα terms υπολογίζονται τώρα, όσο τα collections της συνταγής είναι προσβάσιμα
+        List<String> ingredientNames = recipe.getIngredients() == null ? List.of()
+                : recipe.getIngredients().stream().map(Ingredient::getName).toList();
+        List<String> stepTexts = new ArrayList<>();
+        if (recipe.getSteps() != null) {
+            for (RecipeStep step : recipe.getSteps()) {
+                stepTexts.add(step.getTitle());
+                stepTexts.add(step.getDescription());
+            }
+        }
+        Map<String, Integer> terms = buildTerms(recipe.getTitle(), ingredientNames, stepTexts);
+        AfterCommit.run(() -> apply(recipe.getId(), terms));
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        if (isEnabled() && recipeId != null) {
+            AfterCommit.run(() -> apply(recipeId, null));
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            // Μόνο τα πεδία κειμένου, όχι ολόκληρα entities
+            Map<Long, String> titles = new HashMap<>();
+            for (Object[] row : recipeRepository.findAllTitles()) {
+                titles.put((Long) row[0], (String) row[1]);
+            }
+            Map<Long, List<String>> ingredientNames = recipeRepository.findAllIngredientNames().stream()
+                    .collect(Collectors.groupingBy(row -> (Long) row[0],
+                            Collectors.mapping(row -> (String) row[1], Collectors.toList())));
+            Map<Long, List<String>> stepTexts = new HashMap<>();
+            for (Object[] row : recipeRepository.findAllStepTexts()) {
+                List<String> texts = stepTexts.computeIfAbsent((Long) row[0], id -> new ArrayList<>());
+                texts.add((String) row[1]);
+                texts.add((String) row[2]);
+            }
+
+            // Το tokenization (Unicode normalization + regex) είναι το ακριβό κομμάτι: παράλληλα σε όλους τους πυρήνες
+            Map<Long, Map<String, Integer>> newDocuments = titles.entrySet().parallelStream()
+                    .collect(Collectors.toConcurrentMap(Map.Entry::getKey, entry -> buildTerms(entry.getValue(),
+                            ingredientNames.getOrDefault(entry.getKey(), List.of()),
+                            stepTexts.getOrDefault(entry.getKey(), List.of()))));
+
+            NavigableMap<String, Map<Long, Integer>> newPostings = new TreeMap<>();
+            newDocuments.forEach((recipeId, terms) -> terms.forEach((term, weight) ->
+                    newPostings.computeIfAbsent(term, t -> new HashMap<>()).put(recipeId, weight)));
+
+            lock.writeLock().lock();
+            try {
+                postings = newPostings;
+                documents = new HashMap<>(newDocuments);
+                // Ό,τι άλλαξε όσο διαβάζαμε τη βάση εφαρμόζεται πάνω στο νέο index
+                List<Map.Entry<Long, Map<String, Integer>>> changes = changesDuringRebuild;
+                changesDuringRebuild = null;
+                changes.forEach(change -> applyLocked(change.getKey(), change.getValue()));
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            logger.info("Rebuilt recipe search index: {} recipes, {} terms in {} ms",
+                    newDocuments.size(), newPostings.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Failed to rebuild recipe search index: {}", e.getMessage(), e);
+        }
+    }
+
+    private static Map<String, Integer> buildTerms(String title, List<String> ingredientNames, List<String> stepTexts) {
+        Map<String, Integer> terms = new HashMap<>();
+        SearchText.tokenize(title).forEach(token -> terms.merge(token, TITLE_WEIGHT, Integer::sum));
+        ingredientNames.forEach(name ->
+                SearchText.tokenize(name).forEach(token -> terms.merge(token, INGREDIENT_WEIGHT, Integer::sum)));
+        stepTexts.forEach(text ->
+                SearchText.tokenize(text).forEach(token -> terms.merge(token, STEP_WEIGHT, Integer::sum)));
+        return terms;
+    }
+
+    private void apply(Long recipeId, Map<String, Integer> terms) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(new AbstractMap.SimpleEntry<>(recipeId, terms));
+            }
+            applyLocked(recipeId, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // terms == null σημαίνει αφαίρεση της συνταγής
+    private void applyLocked(Long recipeId, Map<String, Integer> terms) {
+        Map<String, Integer> previous = documents.remove(recipeId);
+        if (previous != null) {
+            previous.keySet().forEach(term -> {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(recipeId);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            });
+        }
+
+        if (terms != null) {
+            documents.put(recipeId, terms);
+            terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(recipeId, weight));
+        }
+    }
+}
@@ -2,30 +2,184 @@ package com.project.dass.ServiceImpl;
 
 import com.project.dass.Model.*;
 import com.project.dass.Repos.RecipeRepository;
+import com.project.dass.Repos.RecipeSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
+import org.hibernate.Cache;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import com.project.dass.Service.IngredientMatchIndex;
+import com.project.dass.Service.PhotoStore;
+import com.project.dass.Service.RecipeFacetCounter;
+import com.project.dass.Service.RecipeProgressService;
+import com.project.dass.Service.RecipeResponseCache;
+import com.project.dass.Service.RecipeSearchIndex;
+import com.project.dass.Service.RecipeSuggestIndex;
 import com.project.dass.Service.RecipeService;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 @Transactional // Εξασφαλίζει ότι οι αλλαγές στη βάση γίνονται ατομικά (ACID)
 public class RecipeServiceImpl implements RecipeService {
 
+    private static final Logger logger = LoggerFactory.getLogger(RecipeServiceImpl.class);
+
     private final RecipeRepository recipeRepository;
+    private final EntityManager entityManager;
+    private final RecipeResponseCache recipeResponseCache;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final IngredientMatchIndex ingredientMatchIndex;
+    private final RecipeSuggestIndex recipeSuggestIndex;
+    private final RecipeFacetCounter recipeFacetCounter;
+    private final JsonMapper jsonMapper;
+    private final RecipeProgressService recipeProgressService;
+    private final PhotoStore photoStore;
+
+    // Τα μέλη που δέχεται το PATCH σε κάθε επίπεδο (βλ. requirePatchableMembers)
+    private static final Set<String> PATCHABLE_RECIPE_FIELDS = Set.of("title", "difficulty", "category",
+            "prepTimeMinutes", "totalTimeMinutes", "imageUrls", "ingredients", "steps");
+    private static final Set<String> PATCHABLE_INGREDIENT_FIELDS = Set.of("name", "quantity", "unit");
+    private static final Set<String> PATCHABLE_STEP_FIELDS = Set.of("stepOrder", "title", "description",
+            "durationMinutes", "imageUrl", "ingredients");
+    private static final Set<String> READ_ONLY_FIELDS = Set.of("id", "version", "dateCreated");
+
+    @Value("${recipes.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${recipes.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${recipes.search.mode:index}")
+    private RecipeSearchMode searchMode;
 
     @Autowired
-    public RecipeServiceImpl(RecipeRepository recipeRepository) {
+    public RecipeServiceImpl(RecipeRepository recipeRepository, EntityManager entityManager,
+                             RecipeResponseCache recipeResponseCache, RecipeSearchIndex recipeSearchIndex,
+                             IngredientMatchIndex ingredientMatchIndex, RecipeSuggestIndex recipeSuggestIndex,
+                             RecipeFacetCounter recipeFacetCounter, JsonMapper jsonMapper,
+                             RecipeProgressService recipeProgressService, PhotoStore photoStore) {
         this.recipeRepository = recipeRepository;
+        this.entityManager = entityManager;
+        this.recipeResponseCache = recipeResponseCache;
+        this.recipeSearchIndex = recipeSearchIndex;
+        this.ingredientMatchIndex = ingredientMatchIndex;
+        this.recipeSuggestIndex = recipeSuggestIndex;
+        this.recipeFacetCounter = recipeFacetCounter;
+        this.jsonMapper = jsonMapper;
+        this.recipeProgressService = recipeProgressService;
+        this.photoStore = photoStore;
     }
 
     // --- BASIC CRUD OPERATIONS ---
 
     @Override
-    public List<Recipe> getAllRecipes() {
-        return recipeRepository.findAll();
+    public RecipePage<Recipe> getRecipesPage(String cursor, Integer limit, RecipeSort sort) {
+        int pageSize = resolvePageSize(limit);
+        RecipeCursor after = cursor == null || cursor.isBlank() ? null : RecipeCursor.decode(cursor, sort);
+
+        // Φέρνουμε μία εγγραφή παραπάνω για να ξέρουμε αν υπάρχει επόμενη σελίδα
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Recipe> rows = switch (sort) {
+            case ID_ASC -> recipeRepository.findByIdGreaterThanOrderByIdAsc(
+                    after == null ? 0L : after.lastId(), fetchLimit);
+            case ID_DESC -> recipeRepository.findByIdLessThanOrderByIdDesc(
+                    after == null ? Long.MAX_VALUE : after.lastId(), fetchLimit);
+            case DATE_ASC -> after == null ? recipeRepository.findByOrderByDateCreatedAscIdAsc(fetchLimit)
+                    : after.lastDate() == null ? recipeRepository.findPageByNullDateAsc(after.lastId(), fetchLimit)
+                    : recipeRepository.findPageByDateAsc(after.lastDate(), after.lastId(), fetchLimit);
+            case DATE_DESC -> after == null ? recipeRepository.findByOrderByDateCreatedDescIdDesc(fetchLimit)
+                    : after.lastDate() == null ? recipeRepository.findPageByNullDateDesc(after.lastId(), fetchLimit)
+                    : recipeRepository.findPageByDateDesc(after.lastDate(), after.lastId(), fetchLimit);
+        };
+
+        return toPage(rows, pageSize, sort, Recipe::getId, Recipe::getDateCreated);
+    }
+
+    @Override
+    public RecipePage<RecipeSummary> getRecipeSummariesPage(String cursor, Integer limit, RecipeSort sort) {
+        int pageSize = resolvePageSize(limit);
+        RecipeCursor after = cursor == null || cursor.isBlank() ? null : RecipeCursor.decode(cursor, sort);
+
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<RecipeSummary> rows = switch (sort) {
+            case ID_ASC -> recipeRepository.findSummaryPageByIdAsc(
+                    after == null ? 0L : after.lastId(), fetchLimit);
+            case ID_DESC -> recipeRepository.findSummaryPageByIdDesc(
+                    after == null ? Long.MAX_VALUE : after.lastId(), fetchLimit);
+            case DATE_ASC -> after == null ? recipeRepository.findSummaryFirstPageByDateAsc(fetchLimit)
+                    : after.lastDate() == null ? recipeRepository.findSummaryPageByNullDateAsc(after.lastId(), fetchLimit)
+                    : recipeRepository.findSummaryPageByDateAsc(after.lastDate(), after.lastId(), fetchLimit);
+            case DATE_DESC -> after == null ? recipeRepository.findSummaryFirstPageByDateDesc(fetchLimit)
+                    : after.lastDate() == null ? recipeRepository.findSummaryPageByNullDateDesc(after.lastId(), fetchLimit)
+                    : recipeRepository.findSummaryPageByDateDesc(after.lastDate(), after.lastId(), fetchLimit);
+        };
+
+        return toPage(rows, pageSize, sort, RecipeSummary::id, RecipeSummary::dateCreated);
+    }
+
+    @Override
+    public RecipePage<RecipeSummary> filterRecipeSummaries(RecipeFilter filter, String cursor, Integer limit,
+                                                           RecipeSort sort) {
+        int pageSize = resolvePageSize(limit);
+        RecipeCursor after = cursor == null || cursor.isBlank() ? null : RecipeCursor.decode(cursor, sort);
+
+        Specification<Recipe> spec = RecipeSpecifications.matching(filter);
+        if (after != null) {
+            spec = spec.and(RecipeSpecifications.after(sort, after.lastId(), after.lastDate()));
+        }
+
+        List<RecipeSummary> rows = recipeRepository.findSummaries(spec, sort, Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, sort, RecipeSummary::id, RecipeSummary::dateCreated);
+    }
+
+    // Κόβει την επιπλέον εγγραφή και φτιάχνει το cursor από το κλειδί της τελευταίας
+    private <T> RecipePage<T> toPage(List<T> rows, int pageSize, RecipeSort sort,
+                                     Function<T, Long> idOf, Function<T, Date> dateOf) {
+        if (rows.size() <= pageSize) {
+            return new RecipePage<>(rows, null);
+        }
+
+        List<T> items = rows.subList(0, pageSize);
+        T last = items.get(items.size() - 1);
+        Date lastDate = dateOf.apply(last);
+        RecipeCursor next = new RecipeCursor(sort, idOf.apply(last), lastDate == null ? null : lastDate.getTime());
+        return new RecipePage<>(items, next.encode());
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(limit, maxPageSize);
     }
 
     @Override
@@ -33,6 +187,51 @@ public class RecipeServiceImpl implements RecipeService {
         return recipeRepository.findById(id);
     }
 
+    @Override
+    public Optional<Recipe> getRecipeDetails(Long id) {
+        if (isGraphCached(id)) {
+            // Όλο το graph είναι στο second-level cache: κανένα query στη MySQL
+            return recipeRepository.findById(id).map(this::initializeGraph);
+        }
+
+        Optional<Recipe> recipe = recipeRepository.findWithIngredientsById(id);
+        if (recipe.isEmpty()) {
+            return recipe;
+        }
+
+        // Τα επόμενα queries επιστρέφουν το ίδιο instance και απλώς αρχικοποιούν τα collections του
+        recipeRepository.findWithStepsById(id);
+        recipeRepository.findWithImageUrlsById(id);
+        if (!recipe.get().getSteps().isEmpty()) {
+            recipeRepository.findStepsWithIngredientsByRecipeId(id);
+        }
+        return recipe;
+    }
+
+    // Το graph είναι cached μόνο αν υπάρχουν η συνταγή, τα collections της και τα step ingredients
+    private boolean isGraphCached(Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        String recipeRole = Recipe.class.getName();
+        if (!cache.containsEntity(Recipe.class, id)
+                || !cache.containsCollection(recipeRole + ".ingredients", id)
+                || !cache.containsCollection(recipeRole + ".steps", id)
+                || !cache.containsCollection(recipeRole + ".imageUrls", id)) {
+            return false;
+        }
+
+        // Η συνταγή και τα steps της έρχονται από το cache, άρα αυτός ο έλεγχος δεν κάνει query
+        Optional<Recipe> recipe = recipeRepository.findById(id);
+        return recipe.isPresent() && recipe.get().getSteps().stream()
+                .allMatch(step -> cache.containsCollection(RecipeStep.class.getName() + ".ingredients", step.getId()));
+    }
+
+    private Recipe initializeGraph(Recipe recipe) {
+        Hibernate.initialize(recipe.getIngredients());
+        Hibernate.initialize(recipe.getImageUrls());
+        recipe.getSteps().forEach(step -> Hibernate.initialize(step.getIngredients()));
+        return recipe;
+    }
+
     @Override
     public Recipe saveRecipe(Recipe recipe) {
         // 1. Link main ingredients to recipe
@@ -42,72 +241,664 @@ public class RecipeServiceImpl implements RecipeService {
 
         // 2. Link steps to recipe AND unify ingredients
         if (recipe.getSteps() != null) {
-            recipe.getSteps().forEach(step -> {
+            IngredientLinker linker = null;
+            for (RecipeStep step : recipe.getSteps()) {
                 step.setRecipe(recipe);
 
-                if (step.getIngredients() != null && recipe.getIngredients() != null) {
-                    java.util.List<Ingredient> unifiedList = new java.util.ArrayList<>();
-
-                    for (Ingredient stepIng : step.getIngredients()) {
-                        // Find the corresponding object in the main list
-                        recipe.getIngredients().stream()
-                                .filter(mainIng -> mainIng.getName().equals(stepIng.getName()) &&
-                                        mainIng.getQuantity().equals(stepIng.getQuantity()) &&
-                                        mainIng.getUnit().equals(stepIng.getUnit()))
-                                .findFirst()
-                                .ifPresent(unifiedList::add);
-                    }
-                    step.setIngredients(unifiedList);
+                // Lazy collection που δεν φορτώθηκε (π.χ. upload φωτογραφίας) δεν έχει αλλάξει: δεν τη φορτώνουμε
+                if (step.getIngredients() == null || recipe.getIngredients() == null
+                        || !Hibernate.isInitialized(step.getIngredients())) {
+                    continue;
+                }
+                if (linker == null) {
+                    linker = new IngredientLinker(recipe.getIngredients());
                 }
-            });
+                List<Ingredient> linked = linker.link(step.getIngredients());
+                // Νέα λίστα μόνο αν άλλαξε, αλλιώς το Hibernate ξαναγράφει όλο το step_ingredients του βήματος
+                if (!IngredientLinker.sameIngredients(step.getIngredients(), linked)) {
+                    step.setIngredients(linked);
+                }
+            }
+        }
+        // Για τα facets: η κατηγορία/δυσκολία πριν την αποθήκευση (null για νέα συνταγή)
+        RecipeFacetValues before = recipe.getId() == null ? null
+                : recipeRepository.findFacetValuesById(recipe.getId()).orElse(null);
+        // Αλλαγές μόνο σε children (π.χ. φωτογραφία βήματος) δεν αυξάνουν μόνες τους το version
+        if (recipe.getId() != null && entityManager.contains(recipe)) {
+            entityManager.lock(recipe, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        }
+        Recipe savedRecipe = recipeRepository.save(recipe);
+        recipeResponseCache.invalidate(savedRecipe.getId());
+        recipeProgressService.invalidate(savedRecipe.getId());
+        recipeSearchIndex.index(savedRecipe);
+        ingredientMatchIndex.index(savedRecipe);
+        recipeSuggestIndex.index(savedRecipe);
+        recipeFacetCounter.recordChange(before, RecipeFacetValues.of(savedRecipe));
+        return savedRecipe;
+    }
+
+    @Override
+    public Optional<Long> getRecipeVersion(Long id) {
+        return recipeRepository.findVersionById(id);
+    }
+
+    // --- PHOTOS ---
+    // Χωρίς saveRecipe: δεν φορτώνεται/συγχωνεύεται το graph ούτε ξανατρέχει το IngredientLinker.
+    // Οι φωτογραφίες δεν επηρεάζουν search, suggest, υλικά, facets ή πρόοδο, οπότε αυτά τα indexes μένουν ως έχουν.
+
+    @Override
+    public boolean addImageUrl(Long recipeId, String imageUrl) {
+        if (recipeRepository.incrementVersion(recipeId) == 0) {
+            return false;
+        }
+        recipeRepository.insertImageUrl(recipeId, imageUrl);
+        evictPhotoChange(recipeId, null);
+        return true;
+    }
+
+    @Override
+    public boolean removeImageUrl(Long recipeId, String imageUrl) {
+        if (recipeRepository.incrementVersion(recipeId) == 0) {
+            return false;
+        }
+        List<Integer> imageOrders = recipeRepository.findImageOrders(recipeId, imageUrl);
+        recipeRepository.deleteImageUrl(recipeId, imageUrl);
+        // Από το τέλος προς την αρχή, ώστε οι θέσεις των επόμενων κενών να μην έχουν ήδη μετακινηθεί
+        imageOrders.forEach(imageOrder -> recipeRepository.shiftImagesAfter(recipeId, imageOrder));
+        evictPhotoChange(recipeId, null);
+        return true;
+    }
+
+    @Override
+    public boolean removeImageUrls(Long recipeId) {
+        if (recipeRepository.incrementVersion(recipeId) == 0) {
+            return false;
         }
-        return recipeRepository.save(recipe);
+        recipeRepository.deleteImageUrls(recipeId);
+        evictPhotoChange(recipeId, null);
+        return true;
+    }
+
+    @Override
+    public boolean setStepImageUrl(Long recipeId, Long stepId, String imageUrl) {
+        return replaceStepImageUrl(recipeId, stepId, imageUrl).isPresent();
+    }
+
+    @Override
+    public Optional<String> replaceStepImageUrl(Long recipeId, Long stepId, String imageUrl) {
+        if (recipeRepository.incrementVersionWithStep(recipeId, stepId) == 0) {
+            return Optional.empty();
+        }
+        // Μετά το UPDATE του version η γραμμή της συνταγής είναι κλειδωμένη: δύο uploads στο ίδιο βήμα
+        // βλέπουν το ένα τη φωτογραφία του άλλου ως προηγούμενη, όχι και τα δύο την ίδια
+        String previous = recipeRepository.findStepImageUrl(stepId).orElse("");
+        recipeRepository.updateStepImageUrl(stepId, imageUrl);
+        evictPhotoChange(recipeId, stepId);
+        if (previous.isEmpty() || previous.equals(imageUrl) || !recipeRepository.findStepIdsByImageUrl(recipeId, previous).isEmpty()) {
+            return Optional.of("");
+        }
+        return Optional.of(previous);
+    }
+
+    @Override
+    public void clearStepImageUrl(Long recipeId, String imageUrl) {
+        for (Long stepId : recipeRepository.findStepIdsByImageUrl(recipeId, imageUrl)) {
+            setStepImageUrl(recipeId, stepId, null);
+        }
+    }
+
+    // Οι native εντολές δεν ακυρώνουν τίποτα στο second-level cache (βλ. PHOTO_QUERY_SPACES): ακυρώνουμε μόνο
+    // τη συνταγή, τις εικόνες της, το βήμα και τα cached summaries (έχουν version και πρώτη εικόνα).
+    // Ξανά μετά το commit, ώστε ένα read που πρόλαβε τα παλιά δεδομένα να μην τα αφήσει στο cache.
+    private void evictPhotoChange(Long recipeId, Long stepId) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        Runnable evict = () -> {
+            cache.evictEntityData(Recipe.class, recipeId);
+            cache.evictCollectionData(Recipe.class.getName() + ".imageUrls", recipeId);
+            if (stepId != null) {
+                cache.evictEntityData(RecipeStep.class, stepId);
+            }
+            cache.evictQueryRegion(RecipeRepository.RECIPE_QUERY_CACHE_REGION);
+        };
+        evict.run();
+        AfterCommit.run(evict);
+        recipeResponseCache.invalidate(recipeId);
     }
 
     @Override
     public Optional<Recipe> updateRecipe(Long id, Recipe recipeDetails) {
+        return updateRecipe(id, recipeDetails, null);
+    }
+
+    @Override
+    public Optional<Recipe> updateRecipe(Long id, Recipe recipeDetails, Long expectedVersion) {
         return recipeRepository.findById(id).map(existingRecipe -> {
+            // 0. If-Match: κάποιος άλλος άλλαξε τη συνταγή στο μεταξύ
+            if (expectedVersion != null && !expectedVersion.equals(existingRecipe.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Recipe.class, id);
+            }
+            RecipeFacetValues before = RecipeFacetValues.of(existingRecipe);
 
-            // 1. Ενημέρωση απλών πεδίων
+            // 1. Ενημέρωση απλών πεδίων (το Hibernate στέλνει UPDATE μόνο αν άλλαξε κάποιο)
+            boolean recipeChanged = !Objects.equals(existingRecipe.getTitle(), recipeDetails.getTitle())
+                    || existingRecipe.getDifficulty() != recipeDetails.getDifficulty()
+                    || existingRecipe.getCategory() != recipeDetails.getCategory()
+                    || !Objects.equals(existingRecipe.getPrepTimeMinutes(), recipeDetails.getPrepTimeMinutes())
+                    || !Objects.equals(existingRecipe.getTotalTimeMinutes(), recipeDetails.getTotalTimeMinutes());
             existingRecipe.setTitle(recipeDetails.getTitle());
             existingRecipe.setDifficulty(recipeDetails.getDifficulty());
             existingRecipe.setCategory(recipeDetails.getCategory());
             existingRecipe.setPrepTimeMinutes(recipeDetails.getPrepTimeMinutes());
             existingRecipe.setTotalTimeMinutes(recipeDetails.getTotalTimeMinutes());
-            existingRecipe.setImageUrls(recipeDetails.getImageUrls());
+            // Η σειρά μετρά (η πρώτη είναι η εικόνα των summaries): το Hibernate γράφει μόνο τις θέσεις που άλλαξαν
+            if (recipeDetails.getImageUrls() != null
+                    && !existingRecipe.getImageUrls().equals(recipeDetails.getImageUrls())) {
+                existingRecipe.getImageUrls().clear();
+                existingRecipe.getImageUrls().addAll(recipeDetails.getImageUrls());
+                recipeChanged = true;
+            }
 
-            // 2. Ενημέρωση Ingredients (Καθαρισμός & Προσθήκη)
+            // 2. Ingredients και Steps: diff ανά id αντί για καθαρισμό & επανεισαγωγή,
+            // ώστε μια διόρθωση σε ένα πεδίο να μη σβήνει/ξαναγράφει όλα τα children
+            boolean childrenChanged = false;
+            Set<Ingredient> removedIngredients = Collections.newSetFromMap(new IdentityHashMap<>());
             if (recipeDetails.getIngredients() != null) {
-                existingRecipe.getIngredients().clear(); // Σβήνουμε τα παλιά
-                recipeDetails.getIngredients().forEach(ingredient -> {
-                    ingredient.setRecipe(existingRecipe); // Συνδέουμε με τον γονέα
-                    existingRecipe.getIngredients().add(ingredient); // Προσθέτουμε τα νέα
-                });
+                childrenChanged = mergeIngredients(existingRecipe, recipeDetails.getIngredients(), removedIngredients);
             }
-
-            // 3. Ενημέρωση Steps
             if (recipeDetails.getSteps() != null) {
-                existingRecipe.getSteps().clear();
-                recipeDetails.getSteps().forEach(step -> {
-                    step.setRecipe(existingRecipe);
-                    existingRecipe.getSteps().add(step);
-                });
+                childrenChanged |= mergeSteps(existingRecipe, recipeDetails.getSteps());
+            }
+            // Βήματα που αναφέρονται ακόμη σε υλικό που σβήστηκε (αλλιώς παραβιάζεται το FK του step_ingredients)
+            if (!removedIngredients.isEmpty()) {
+                existingRecipe.getSteps().forEach(step -> step.getIngredients().removeIf(removedIngredients::contains));
+            }
+
+            // 3. Οι αλλαγές μόνο σε children δεν αυξάνουν μόνες τους το version. Το UPDATE ελέγχει
+            // το version, άρα πιάνει και ταυτόχρονες αλλαγές μετά το φόρτωμα.
+            if (childrenChanged && !recipeChanged) {
+                entityManager.lock(existingRecipe, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
             }
 
             // 4. Αποθήκευση
-            return recipeRepository.save(existingRecipe);
+            Recipe savedRecipe = recipeRepository.save(existingRecipe);
+            recipeResponseCache.invalidate(id);
+            recipeProgressService.invalidate(id);
+            recipeSearchIndex.index(savedRecipe);
+            ingredientMatchIndex.index(savedRecipe);
+            recipeSuggestIndex.index(savedRecipe);
+            recipeFacetCounter.recordChange(before, RecipeFacetValues.of(savedRecipe));
+            return savedRecipe;
         });
     }
 
+    // Τα υλικά του αιτήματος ταιριάζουν με τα υπάρχοντα πρώτα ανά id και μετά ανά (name, quantity, unit),
+    // για clients που δεν στέλνουν ids. Όσα ταιριάζουν ενημερώνονται επί τόπου, τα υπόλοιπα γίνονται INSERT
+    // και όσα δεν εμφανίζονται στο αίτημα σβήνονται (orphanRemoval). Επιστρέφει αν άλλαξε κάτι.
+    private boolean mergeIngredients(Recipe recipe, List<Ingredient> incoming, Set<Ingredient> removed) {
+        Map<Long, Ingredient> unmatched = new HashMap<>();
+        recipe.getIngredients().forEach(ingredient -> unmatched.put(ingredient.getId(), ingredient));
+
+        Ingredient[] matches = new Ingredient[incoming.size()];
+        for (int i = 0; i < matches.length; i++) {
+            Long incomingId = incoming.get(i).getId();
+            matches[i] = incomingId != null ? unmatched.remove(incomingId) : null;
+        }
+        Map<IngredientKey, Deque<Ingredient>> unmatchedByKey = new HashMap<>();
+        unmatched.values().forEach(ingredient -> unmatchedByKey
+                .computeIfAbsent(IngredientKey.of(ingredient), key -> new ArrayDeque<>()).add(ingredient));
+        for (int i = 0; i < matches.length; i++) {
+            if (matches[i] != null) {
+                continue;
+            }
+            Deque<Ingredient> sameKey = unmatchedByKey.get(IngredientKey.of(incoming.get(i)));
+            if (sameKey != null && !sameKey.isEmpty()) {
+                matches[i] = sameKey.poll();
+                unmatched.remove(matches[i].getId());
+            }
+        }
+
+        boolean changed = false;
+        for (int i = 0; i < matches.length; i++) {
+            Ingredient ingredient = incoming.get(i);
+            if (matches[i] == null) {
+                ingredient.setId(null);
+                recipe.addIngredient(ingredient);
+                changed = true;
+            } else {
+                changed |= copyIngredient(ingredient, matches[i]);
+            }
+        }
+        if (!unmatched.isEmpty()) {
+            removed.addAll(unmatched.values());
+            recipe.getIngredients().removeIf(removed::contains);
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static boolean copyIngredient(Ingredient from, Ingredient to) {
+        boolean changed = !Objects.equals(to.getName(), from.getName())
+                || !Objects.equals(to.getQuantity(), from.getQuantity())
+                || !Objects.equals(to.getUnit(), from.getUnit());
+        to.setName(from.getName());
+        to.setQuantity(from.getQuantity());
+        to.setUnit(from.getUnit());
+        return changed;
+    }
+
+    // Όπως τα υλικά, με το stepOrder ως δεύτερο κλειδί. Τα υλικά κάθε βήματος δείχνουν στα
+    // managed υλικά της συνταγής (μετά το mergeIngredients) και το step_ingredients ενός βήματος
+    // ξαναγράφεται μόνο αν άλλαξε το σύνολό τους.
+    private boolean mergeSteps(Recipe recipe, List<RecipeStep> incoming) {
+        IngredientLinker linker = new IngredientLinker(recipe.getIngredients());
+
+        Map<Long, RecipeStep> unmatched = new HashMap<>();
+        recipe.getSteps().forEach(step -> unmatched.put(step.getId(), step));
+        RecipeStep[] matches = new RecipeStep[incoming.size()];
+        for (int i = 0; i < matches.length; i++) {
+            Long incomingId = incoming.get(i).getId();
+            matches[i] = incomingId != null ? unmatched.remove(incomingId) : null;
+        }
+        Map<Integer, RecipeStep> unmatchedByOrder = new HashMap<>();
+        unmatched.values().forEach(step -> unmatchedByOrder.putIfAbsent(step.getStepOrder(), step));
+        for (int i = 0; i < matches.length; i++) {
+            if (matches[i] != null) {
+                continue;
+            }
+            matches[i] = unmatchedByOrder.remove(incoming.get(i).getStepOrder());
+            if (matches[i] != null) {
+                unmatched.remove(matches[i].getId());
+            }
+        }
+
+        boolean changed = false;
+        for (int i = 0; i < matches.length; i++) {
+            RecipeStep step = incoming.get(i);
+            List<Ingredient> linked = step.getIngredients() != null ? linker.link(step.getIngredients()) : null;
+            if (matches[i] == null) {
+                step.setId(null);
+                step.setIngredients(linked != null ? linked : new ArrayList<>());
+                recipe.addStep(step);
+                changed = true;
+            } else {
+                changed |= copyStep(step, linked, matches[i]);
+            }
+        }
+        if (!unmatched.isEmpty()) {
+            Set<RecipeStep> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+            removed.addAll(unmatched.values());
+            recipe.getSteps().removeIf(removed::contains);
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static boolean copyStep(RecipeStep from, List<Ingredient> linked, RecipeStep to) {
+        boolean changed = !Objects.equals(to.getStepOrder(), from.getStepOrder())
+                || !Objects.equals(to.getTitle(), from.getTitle())
+                || !Objects.equals(to.getDescription(), from.getDescription())
+                || !Objects.equals(to.getDurationMinutes(), from.getDurationMinutes())
+                || !Objects.equals(to.getImageUrl(), from.getImageUrl());
+        to.setStepOrder(from.getStepOrder());
+        to.setTitle(from.getTitle());
+        to.setDescription(from.getDescription());
+        to.setDurationMinutes(from.getDurationMinutes());
+        to.setImageUrl(from.getImageUrl());
+        // Bag: κάθε αλλαγή ξαναγράφει όλες τις γραμμές του βήματος, οπότε συγκρίνουμε πρώτα (η σειρά δεν αποθηκεύεται)
+        if (linked != null && !IngredientLinker.sameIngredients(to.getIngredients(), linked)) {
+            to.getIngredients().clear();
+            to.getIngredients().addAll(linked);
+            changed = true;
+        }
+        return changed;
+    }
+
+    // --- JSON MERGE PATCH (PATCH /recipes/{id}) ---
+
+    // Τι άλλαξε το patch: καθορίζει αν χρειάζεται force increment και ποια indexes ενημερώνονται
+    private static final class PatchChanges {
+        private boolean recipeRow;
+        private boolean children;
+        private boolean title;
+        private boolean ingredientNames;
+        private boolean stepTexts;
+        private final Set<Ingredient> removedIngredients = Collections.newSetFromMap(new IdentityHashMap<>());
+        private IngredientLinker linker;
+    }
+
+    @Override
+    public Optional<Recipe> patchRecipe(Long id, JsonNode patch, Long expectedVersion) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("A recipe merge patch must be a JSON object");
+        }
+        requirePatchableMembers(patch, PATCHABLE_RECIPE_FIELDS, "");
+        return recipeRepository.findById(id).map(recipe -> {
+            if (expectedVersion != null && !expectedVersion.equals(recipe.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Recipe.class, id);
+            }
+            RecipeFacetValues before = RecipeFacetValues.of(recipe);
+            PatchChanges changes = new PatchChanges();
+
+            // 1. Απλά πεδία: μόνο όσα υπάρχουν στο patch (null = καθαρισμός του πεδίου)
+            if (patch.has("title")) {
+                changes.title = set(recipe::getTitle, recipe::setTitle, patchValue(patch, "title", String.class));
+                changes.recipeRow |= changes.title;
+            }
+            if (patch.has("difficulty")) {
+                changes.recipeRow |= set(recipe::getDifficulty, recipe::setDifficulty,
+                        patchValue(patch, "difficulty", DifficultyLevel.class));
+            }
+            if (patch.has("category")) {
+                changes.recipeRow |= set(recipe::getCategory, recipe::setCategory,
+                        patchValue(patch, "category", RecipeCategory.class));
+            }
+            if (patch.has("prepTimeMinutes")) {
+                changes.recipeRow |= set(recipe::getPrepTimeMinutes, recipe::setPrepTimeMinutes,
+                        patchValue(patch, "prepTimeMinutes", Integer.class));
+            }
+            if (patch.has("totalTimeMinutes")) {
+                changes.recipeRow |= set(recipe::getTotalTimeMinutes, recipe::setTotalTimeMinutes,
+                        patchValue(patch, "totalTimeMinutes", Integer.class));
+            }
+            // Κατά το RFC 7396 ένας πίνακας αντικαθιστά όλη τη λίστα
+            if (patch.has("imageUrls")) {
+                List<String> imageUrls = patch.get("imageUrls").isNull() ? List.of()
+                        : patchValue(patch, "imageUrls", new TypeReference<List<String>>() { });
+                if (!recipe.getImageUrls().equals(imageUrls)) {
+                    recipe.getImageUrls().clear();
+                    recipe.getImageUrls().addAll(imageUrls);
+                    changes.recipeRow = true;
+                }
+            }
+
+            // 2. Children: ένας πίνακας αντικαθιστά όλη τη λίστα (όπως το PUT) και το null την αδειάζει.
+            // Ένα αντικείμενο με κλειδί το id αγγίζει μόνο τις γραμμές που αναφέρει, χωρίς φόρτωμα του collection.
+            JsonNode ingredients = patch.get("ingredients");
+            if (ingredients != null && (ingredients.isArray() || ingredients.isNull())) {
+                boolean changed = mergeIngredients(recipe, ingredients.isNull() ? List.of()
+                                : patchValue(patch, "ingredients", new TypeReference<List<Ingredient>>() { }),
+                        changes.removedIngredients);
+                changes.children |= changed;
+                changes.ingredientNames |= changed;
+                // Βήματα που αναφέρονται ακόμη σε υλικό που σβήστηκε (αλλιώς παραβιάζεται το FK του step_ingredients)
+                if (!changes.removedIngredients.isEmpty()) {
+                    recipe.getSteps().forEach(step -> step.getIngredients().removeIf(changes.removedIngredients::contains));
+                }
+            } else if (ingredients != null && ingredients.isObject()) {
+                patchIngredients(recipe, ingredients, changes);
+            } else if (ingredients != null) {
+                throw new IllegalArgumentException("ingredients must be an array or an object keyed by id");
+            }
+
+            JsonNode steps = patch.get("steps");
+            if (steps != null && (steps.isArray() || steps.isNull())) {
+                boolean changed = mergeSteps(recipe, steps.isNull() ? List.of()
+                        : patchValue(patch, "steps", new TypeReference<List<RecipeStep>>() { }));
+                changes.children |= changed;
+                changes.stepTexts |= changed;
+            } else if (steps != null && steps.isObject()) {
+                patchSteps(recipe, steps, changes);
+            } else if (steps != null) {
+                throw new IllegalArgumentException("steps must be an array or an object keyed by id");
+            }
+
+            // 3. Version: όπως στο updateRecipe
+            if (changes.children && !changes.recipeRow) {
+                entityManager.lock(recipe, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            }
+            if (changes.children) {
+                // Τα indexes διαβάζουν τα collections: πρώτα τα νέα/σβησμένα children στη βάση
+                entityManager.flush();
+            }
+
+            // 4. Μόνο τα indexes που επηρεάζονται (το καθένα διαβάζει ό,τι collection χρειάζεται)
+            recipeResponseCache.invalidate(id);
+            recipeProgressService.invalidate(id);
+            if (changes.title || changes.ingredientNames || changes.stepTexts) {
+                recipeSearchIndex.index(recipe);
+            }
+            if (changes.ingredientNames) {
+                ingredientMatchIndex.index(recipe);
+            }
+            if (changes.title || changes.ingredientNames) {
+                recipeSuggestIndex.index(recipe);
+            }
+            recipeFacetCounter.recordChange(before, RecipeFacetValues.of(recipe));
+            return recipe;
+        });
+    }
+
+    // Μέλη που δεν αλλάζουν με PATCH (id, version, dateCreated) ή που δεν υπάρχουν (π.χ. λάθος όνομα)
+    // απορρίπτονται, αντί να αγνοηθούν σιωπηλά
+    private static void requirePatchableMembers(JsonNode fields, Set<String> patchable, String path) {
+        for (Map.Entry<String, JsonNode> member : fields.properties()) {
+            String name = member.getKey();
+            if (READ_ONLY_FIELDS.contains(name)) {
+                throw new IllegalArgumentException(path + name + " is read-only");
+            }
+            if (!patchable.contains(name)) {
+                throw new IllegalArgumentException("Unknown field " + path + name);
+            }
+        }
+    }
+
+    // {"<id>": {...}} ενημερώνει, {"<id>": null} σβήνει, {"<κλειδί του client>": {...}} προσθέτει
+    private void patchIngredients(Recipe recipe, JsonNode patch, PatchChanges changes) {
+        for (Map.Entry<String, JsonNode> entry : patch.properties()) {
+            Ingredient ingredient = findChild(Ingredient.class, entry.getKey(), recipe, Ingredient::getRecipe,
+                    "ingredients.");
+            JsonNode fields = entry.getValue();
+            if (fields.isNull()) {
+                if (ingredient != null) {
+                    changes.removedIngredients.add(ingredient);
+                    changes.children = changes.ingredientNames = true;
+                }
+                continue;
+            }
+            if (!fields.isObject()) {
+                throw new IllegalArgumentException("ingredients." + entry.getKey() + " must be an object or null");
+            }
+            requirePatchableMembers(fields, PATCHABLE_INGREDIENT_FIELDS, "ingredients." + entry.getKey() + ".");
+            if (ingredient == null) {
+                ingredient = new Ingredient();
+                // Σε bag που δεν έχει φορτωθεί το add μπαίνει σε ουρά (χωρίς SELECT) και το cascade κάνει το INSERT
+                recipe.addIngredient(ingredient);
+                changes.children = changes.ingredientNames = true;
+            }
+            if (fields.has("name")) {
+                Ingredient target = ingredient;
+                boolean renamed = set(target::getName, target::setName, patchValue(fields, "name", String.class));
+                changes.children |= renamed;
+                changes.ingredientNames |= renamed;
+            }
+            if (fields.has("quantity")) {
+                Ingredient target = ingredient;
+                changes.children |= set(target::getQuantity, target::setQuantity, patchValue(fields, "quantity", Double.class));
+            }
+            if (fields.has("unit")) {
+                Ingredient target = ingredient;
+                changes.children |= set(target::getUnit, target::setUnit, patchValue(fields, "unit", String.class));
+            }
+        }
+
+        if (!changes.removedIngredients.isEmpty()) {
+            // Πρώτα οι αναφορές από τα βήματα, μετά το DELETE. Το flush εδώ εξασφαλίζει ότι ένα
+            // collection που θα φορτωθεί αργότερα στο ίδιο patch δεν θα περιέχει τα σβησμένα υλικά.
+            recipe.getSteps().forEach(step -> step.getIngredients().removeIf(changes.removedIngredients::contains));
+            changes.removedIngredients.forEach(ingredient -> removeChild(recipe.getIngredients(), ingredient));
+            entityManager.flush();
+        }
+    }
+
+    private void patchSteps(Recipe recipe, JsonNode patch, PatchChanges changes) {
+        for (Map.Entry<String, JsonNode> entry : patch.properties()) {
+            RecipeStep step = findChild(RecipeStep.class, entry.getKey(), recipe, RecipeStep::getRecipe, "steps.");
+            JsonNode fields = entry.getValue();
+            if (fields.isNull()) {
+                if (step != null) {
+                    removeChild(recipe.getSteps(), step);
+                    changes.children = changes.stepTexts = true;
+                }
+                continue;
+            }
+            if (!fields.isObject()) {
+                throw new IllegalArgumentException("steps." + entry.getKey() + " must be an object or null");
+            }
+            requirePatchableMembers(fields, PATCHABLE_STEP_FIELDS, "steps." + entry.getKey() + ".");
+            if (step == null) {
+                if (!fields.hasNonNull("stepOrder")) {
+                    throw new IllegalArgumentException("steps." + entry.getKey() + ".stepOrder is required for a new step");
+                }
+                step = new RecipeStep();
+                recipe.addStep(step);
+                changes.children = changes.stepTexts = true;
+            }
+            RecipeStep target = step;
+            if (fields.has("stepOrder")) {
+                changes.children |= set(target::getStepOrder, target::setStepOrder,
+                        patchValue(fields, "stepOrder", Integer.class));
+            }
+            if (fields.has("title")) {
+                boolean changed = set(target::getTitle, target::setTitle, patchValue(fields, "title", String.class));
+                changes.children |= changed;
+                changes.stepTexts |= changed;
+            }
+            if (fields.has("description")) {
+                boolean changed = set(target::getDescription, target::setDescription,
+                        patchValue(fields, "description", String.class));
+                changes.children |= changed;
+                changes.stepTexts |= changed;
+            }
+            if (fields.has("durationMinutes")) {
+                changes.children |= set(target::getDurationMinutes, target::setDurationMinutes,
+                        patchValue(fields, "durationMinutes", Integer.class));
+            }
+            if (fields.has("imageUrl")) {
+                changes.children |= set(target::getImageUrl, target::setImageUrl,
+                        patchValue(fields, "imageUrl", String.class));
+            }
+            // Τα υλικά του βήματος είναι πίνακας, άρα αντικαθίστανται όλα (αναφορές με id ή name/quantity/unit)
+            if (fields.has("ingredients")) {
+                List<Ingredient> linked = fields.get("ingredients").isNull() ? List.of()
+                        : linkStepIngredients(recipe, patchValue(fields, "ingredients",
+                                new TypeReference<List<Ingredient>>() { }), changes);
+                if (!IngredientLinker.sameIngredients(target.getIngredients(), linked)) {
+                    target.getIngredients().clear();
+                    target.getIngredients().addAll(linked);
+                    changes.children = true;
+                }
+            }
+        }
+    }
+
+    // Αναφορές με id φορτώνουν μόνο το συγκεκριμένο υλικό. Μόνο οι αναφορές με περιεχόμενο
+    // χρειάζονται όλα τα υλικά της συνταγής (ένα query, μία φορά ανά patch).
+    private List<Ingredient> linkStepIngredients(Recipe recipe, List<Ingredient> refs, PatchChanges changes) {
+        List<Ingredient> linked = new ArrayList<>(refs.size());
+        for (Ingredient ref : refs) {
+            Ingredient ingredient = ref.getId() != null
+                    ? ownChild(Ingredient.class, ref.getId(), recipe, Ingredient::getRecipe)
+                    : null;
+            if (ingredient == null && ref.getName() != null) {
+                if (changes.linker == null) {
+                    changes.linker = new IngredientLinker(recipe.getIngredients());
+                }
+                ingredient = changes.linker.link(List.of(ref)).stream().findFirst().orElse(null);
+            }
+            if (ingredient != null && !changes.removedIngredients.contains(ingredient)) {
+                linked.add(ingredient);
+            }
+        }
+        return linked;
+    }
+
+    // Child της συνταγής με id το κλειδί του patch, ή null για μη αριθμητικό κλειδί (νέο child). Ένα id που δεν
+    // είναι child αυτής της συνταγής (παλιό ή άλλης συνταγής) απορρίπτεται: ένα retry δεν προσθέτει διπλό child
+    private <T> T findChild(Class<T> type, String key, Recipe recipe, Function<T, Recipe> owner, String path) {
+        long childId;
+        try {
+            childId = Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            return null; // κλειδί του client για νέο child
+        }
+        T child = ownChild(type, childId, recipe, owner);
+        if (child == null) {
+            throw new IllegalArgumentException(path + key + " is not in recipe " + recipe.getId());
+        }
+        return child;
+    }
+
+    // Child της συγκεκριμένης συνταγής με αυτό το id, ή null
+    private <T> T ownChild(Class<T> type, long childId, Recipe recipe, Function<T, Recipe> owner) {
+        T child = entityManager.find(type, childId);
+        return child != null && owner.apply(child) != null && recipe.getId().equals(owner.apply(child).getId())
+                ? child : null;
+    }
+
+    // Το collection δεν φορτώνεται για ένα DELETE. Αν είναι ήδη φορτωμένο, βγαίνει κι από εκεί
+    // (αλλιώς το cascade PERSIST του flush θα το "ξανασώσει")
+    private <T> void removeChild(List<T> collection, T child) {
+        if (Hibernate.isInitialized(collection)) {
+            collection.remove(child);
+        }
+        entityManager.remove(child);
+    }
+
+    private <T> T patchValue(JsonNode patch, String field, Class<T> type) {
+        JsonNode value = patch.get(field);
+        if (value.isNull()) {
+            return null;
+        }
+        try {
+            return jsonMapper.treeToValue(value, type);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Invalid value for " + field, e);
+        }
+    }
+
+    private <T> T patchValue(JsonNode patch, String field, TypeReference<T> type) {
+        try {
+            return jsonMapper.treeToValue(patch.get(field), type);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Invalid value for " + field, e);
+        }
+    }
+
+    private static <T> boolean set(Supplier<T> getter, Consumer<T> setter, T value) {
+        if (Objects.equals(getter.get(), value)) {
+            return false;
+        }
+        setter.accept(value);
+        return true;
+    }
+
     @Override
     public void deleteRecipe(Long id) {
+        Optional<RecipeFacetValues> before = recipeRepository.findFacetValuesById(id);
         recipeRepository.deleteById(id);
+        // Οι φωτογραφίες είναι hard links στο photo store: όσο μένει ο φάκελος, το περιεχόμενό τους δεν σβήνεται ποτέ
+        AfterCommit.run(() -> deletePhotos(id));
+        recipeResponseCache.invalidate(id);
+        recipeProgressService.invalidate(id);
+        recipeSearchIndex.remove(id);
+        ingredientMatchIndex.remove(id);
+        recipeSuggestIndex.remove(id);
+        before.ifPresent(values -> recipeFacetCounter.recordChange(values, null));
+    }
+
+    private void deletePhotos(Long id) {
+        try {
+            photoStore.deleteAll(id);
+        } catch (IOException e) {
+            logger.warn("Failed to delete the photos of deleted recipe ID {}: {}", id, e.getMessage());
+        }
     }
 
     @Override
-    public List<Recipe> searchRecipes(String keyword) {
-        // Αναζήτηση στον τίτλο (case insensitive)
-        return recipeRepository.findByTitleContainingIgnoreCase(keyword);
+    public RecipePage<Recipe> searchRecipes(String keyword, String cursor, Integer limit) {
+        RecipePage<Long> ids = searchIds(keyword, cursor, limit);
+        List<Recipe> recipes = inRankOrder(ids.items(), recipeRepository.findAllById(ids.items()), Recipe::getId);
+        return new RecipePage<>(recipes, ids.nextCursor());
     }
 
     @Override
@@ -115,6 +906,73 @@ public class RecipeServiceImpl implements RecipeService {
         return recipeRepository.findByCategory(category);
     }
 
+    @Override
+    public RecipePage<RecipeSummary> searchRecipeSummaries(String keyword, String cursor, Integer limit) {
+        RecipePage<Long> ids = searchIds(keyword, cursor, limit);
+        List<RecipeSummary> summaries = ids.items().isEmpty() ? List.of()
+                : inRankOrder(ids.items(), recipeRepository.findSummariesByIdIn(ids.items()), RecipeSummary::id);
+        return new RecipePage<>(summaries, ids.nextCursor());
+    }
+
+    // Μία σελίδα από IDs κατά σειρά σχετικότητας, με μία εγγραφή παραπάνω για να ξέρουμε αν υπάρχει επόμενη
+    private RecipePage<Long> searchIds(String keyword, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        int offset = cursor == null || cursor.isBlank() ? 0 : SearchCursor.decode(cursor).offset();
+
+        List<Long> rows = switch (searchMode) {
+            case FULLTEXT -> recipeRepository.searchIdsFullText(keyword, pageSize + 1, offset);
+            case INDEX -> {
+                // Μέχρι να χτιστεί το index (startup) πέφτουμε στην αναζήτηση τίτλου με LIKE
+                List<Long> ranked = recipeSearchIndex.isReady()
+                        ? recipeSearchIndex.search(keyword, offset + pageSize + 1)
+                        : recipeRepository.findIdsByTitleContaining(keyword, Limit.of(offset + pageSize + 1));
+                yield ranked.subList(Math.min(offset, ranked.size()), ranked.size());
+            }
+        };
+
+        if (rows.size() <= pageSize) {
+            return new RecipePage<>(rows, null);
+        }
+        // Μετά το MAX_OFFSET δεν δίνουμε επόμενη σελίδα (το decode θα απέρριπτε τον cursor)
+        int nextOffset = offset + pageSize;
+        String nextCursor = nextOffset > SearchCursor.MAX_OFFSET ? null : new SearchCursor(nextOffset).encode();
+        return new RecipePage<>(rows.subList(0, pageSize), nextCursor);
+    }
+
+    @Override
+    public List<RecipeCoverage> findCookableRecipes(List<String> ingredients, Integer maxMissing, Integer limit) {
+        List<IngredientMatch> matches = ingredientMatchIndex.match(ingredients, maxMissing, resolvePageSize(limit));
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, RecipeSummary> summaries = new HashMap<>();
+        recipeRepository.findSummariesByIdIn(matches.stream().map(IngredientMatch::recipeId).toList())
+                .forEach(summary -> summaries.put(summary.id(), summary));
+        // Μια συνταγή που σβήστηκε μόλις τώρα μπορεί να λείπει από το query
+        return matches.stream()
+                .filter(match -> summaries.containsKey(match.recipeId()))
+                .map(match -> new RecipeCoverage(summaries.get(match.recipeId()), match.matchedIngredients(),
+                        match.totalIngredients(), match.missingIngredients()))
+                .toList();
+    }
+
+    // Το IN (...) δεν κρατά τη σειρά, οπότε ταξινομούμε ξανά με την κατάταξη του index
+    private static <T> List<T> inRankOrder(List<Long> ids, List<T> rows, Function<T, Long> idOf) {
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return rows.stream()
+                .sorted(Comparator.comparing(row -> rank.get(idOf.apply(row))))
+                .toList();
+    }
+
+    @Override
+    public List<RecipeSummary> getRecipeSummariesByCategory(RecipeCategory category) {
+        return recipeRepository.findSummariesByCategory(category);
+    }
+
     // --- BUSINESS LOGIC: EXECUTION & PROGRESS BAR ---
 
     /**
@@ -127,26 +985,6 @@ public class RecipeServiceImpl implements RecipeService {
      */
     @Override
     public double calculateProgress(Recipe recipe, int lastCompletedStepOrder) {
-        if (recipe.getSteps() == null || recipe.getSteps().isEmpty()) {
-            return 0.0;
-        }
-
-        double totalDuration = recipe.getTotalTimeMinutes();
-        if (totalDuration == 0)
-            return 0.0; // Αποφυγή διαίρεσης με το μηδέν
-
-        double completedTime = 0.0;
-
-        for (RecipeStep step : recipe.getSteps()) {
-            if (step.getStepOrder() <= lastCompletedStepOrder) {
-                completedTime += step.getDurationMinutes();
-            }
-        }
-
-        // Υπολογισμός ποσοστού
-        double progress = (completedTime / totalDuration) * 100.0;
-
-        // Επιστρέφουμε το μέγιστο 100% (σε περίπτωση λάθους στους χρόνους)
-        return Math.min(progress, 100.0);
+        return ProgressTable.of(recipe).progressAfter(lastCompletedStepOrder);
     }
 }
\ No newline at end of file
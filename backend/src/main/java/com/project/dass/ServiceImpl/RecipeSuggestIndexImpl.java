@@ -0,0 +1,311 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.Ingredient;
+import com.project.dass.Model.Recipe;
+import com.project.dass.Model.Suggestion;
+import com.project.dass.Model.SuggestionType;
+import com.project.dass.Repos.RecipeRepository;
+import com.project.dass.Service.RecipeSuggestIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Service
+public class RecipeSuggestIndexImpl implements RecipeSuggestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeSuggestIndexImpl.class);
+
+    // Τα πολύ σύντομα προθέματα (ένα ή δύο γράμματα) ταιριάζουν με μεγάλο μέρος των keys: η κατάταξή τους
+    // κρατιέται μέχρι την επόμενη αλλαγή του index, αντί να ξαναγίνεται σε κάθε πλήκτρο
+    private static final int CACHED_PREFIX_LENGTH = 2;
+
+    private static final Comparator<Phrase> BY_POPULARITY = Comparator
+            .comparingInt((Phrase phrase) -> phrase.recipes).reversed()
+            .thenComparing(phrase -> phrase.key);
+
+    private final RecipeRepository recipeRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Κάθε διαφορετικός τίτλος/υλικό μία φορά, με το πόσες συνταγές τον χρησιμοποιούν
+    private final Map<PhraseKey, Phrase> phrases = new HashMap<>();
+    // Ταξινομημένα keys: η φράση κανονικοποιημένη, από την αρχή κάθε λέξης της
+    // ("spaghetti carbonara" και "carbonara"), ώστε το πρόθεμα να είναι ένα range scan
+    private final NavigableMap<String, Set<Phrase>> prefixes = new TreeMap<>();
+    // recipeId -> οι φράσεις της, για την ενημέρωση/αφαίρεση
+    private final Map<Long, List<Phrase>> recipePhrases = new HashMap<>();
+    // Αλλαγές που έγιναν όσο έτρεχε ένα rebuild (null όταν δεν τρέχει rebuild)
+    private List<Runnable> changesDuringRebuild;
+    private volatile boolean ready;
+    private final Map<String, Ranked> rankedByShortPrefix = new ConcurrentHashMap<>();
+
+    // Οι πρώτες limit φράσεις ενός προθέματος, κατά δημοτικότητα
+    private record Ranked(int limit, List<Phrase> phrases) {
+    }
+
+    private record PhraseKey(SuggestionType type, String key) {
+    }
+
+    private static final class Phrase {
+        private final SuggestionType type;
+        private final String key;
+        private final String text;
+        private int recipes;
+
+        private Phrase(SuggestionType type, String key, String text) {
+            this.type = type;
+            this.key = key;
+            this.text = text;
+        }
+    }
+
+    public RecipeSuggestIndexImpl(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Override
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (!ready) {
+            return suggestFromDatabase(prefix.trim(), limit);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Phrase> ranked;
+            if (key.length() > CACHED_PREFIX_LENGTH) {
+                ranked = rankLocked(key, limit);
+            } else {
+                // Η κατάταξη γράφεται όσο κρατάμε το read lock, άρα πριν από το clear της επόμενης αλλαγής
+                Ranked cached = rankedByShortPrefix.get(key);
+                if (cached == null || cached.limit() < limit) {
+                    cached = new Ranked(limit, rankLocked(key, limit));
+                    rankedByShortPrefix.put(key, cached);
+                }
+                ranked = cached.phrases();
+            }
+            return ranked.stream()
+                    .limit(limit)
+                    .map(phrase -> new Suggestion(phrase.text, phrase.type, phrase.recipes))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Καλείται με το read lock
+    private List<Phrase> rankLocked(String key, int limit) {
+        // Οι limit πιο δημοφιλείς σε min-heap (στην κορυφή η λιγότερο δημοφιλής τους): όλο το range
+        // εξετάζεται, ώστε ένα σύντομο πρόθεμα να μη χάνει φράσεις που ταξινομούνται αλφαβητικά αργότερα
+        PriorityQueue<Phrase> best = new PriorityQueue<>(limit + 1, BY_POPULARITY.reversed());
+        // Μια φράση εμφανίζεται κάτω από κάθε λέξη της που ταιριάζει με το πρόθεμα
+        Set<Phrase> inBest = new HashSet<>();
+        for (Set<Phrase> keyPhrases : prefixes.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            for (Phrase phrase : keyPhrases) {
+                if (inBest.contains(phrase)) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(phrase);
+                    inBest.add(phrase);
+                } else if (BY_POPULARITY.compare(phrase, best.peek()) < 0) {
+                    inBest.remove(best.poll());
+                    best.add(phrase);
+                    inBest.add(phrase);
+                }
+            }
+        }
+
+        List<Phrase> ranked = new ArrayList<>(best);
+        ranked.sort(BY_POPULARITY);
+        return ranked;
+    }
+
+    // Μέχρι να χτιστεί το index (startup): τίτλοι και υλικά με λέξη που ξεκινά με το πρόθεμα, με LIKE
+    private List<Suggestion> suggestFromDatabase(String prefix, int limit) {
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (Object[] row : recipeRepository.countTitlesStartingWith(prefix, Limit.of(limit))) {
+            suggestions.add(new Suggestion((String) row[0], SuggestionType.TITLE, ((Long) row[1]).intValue()));
+        }
+        for (Object[] row : recipeRepository.countIngredientNamesStartingWith(prefix, Limit.of(limit))) {
+            suggestions.add(new Suggestion((String) row[0], SuggestionType.INGREDIENT, ((Long) row[1]).intValue()));
+        }
+        return suggestions.stream()
+                .sorted(Comparator.comparingInt(Suggestion::recipes).reversed().thenComparing(Suggestion::text))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void index(Recipe recipe) {
+        if (recipe.getId() == null) {
+            return;
+        }
+        // Τα ονόματα διαβάζονται τώρα, όσο το collection της συνταγής είναι προσβάσιμο
+        List<String> ingredientNames = recipe.getIngredients() == null ? List.of()
+                : recipe.getIngredients().stream().map(Ingredient::getName).toList();
+        String title = recipe.getTitle();
+        AfterCommit.run(() -> apply(() -> {
+            removeLocked(recipe.getId());
+            addLocked(recipe.getId(), title, ingredientNames);
+        }));
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        if (recipeId != null) {
+            AfterCommit.run(() -> apply(() -> removeLocked(recipeId)));
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Map<Long, String> titles = new LinkedHashMap<>();
+            for (Object[] row : recipeRepository.findAllTitles()) {
+                titles.put((Long) row[0], (String) row[1]);
+            }
+            Map<Long, List<String>> ingredientNames = new HashMap<>();
+            for (Object[] row : recipeRepository.findAllIngredientNames()) {
+                ingredientNames.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+
+            lock.writeLock().lock();
+            try {
+                phrases.clear();
+                prefixes.clear();
+                recipePhrases.clear();
+                titles.forEach((recipeId, title) ->
+                        addLocked(recipeId, title, ingredientNames.getOrDefault(recipeId, List.of())));
+                // Ό,τι άλλαξε όσο διαβάζαμε τη βάση εφαρμόζεται πάνω στο νέο index
+                List<Runnable> changes = changesDuringRebuild;
+                changesDuringRebuild = null;
+                changes.forEach(Runnable::run);
+                rankedByShortPrefix.clear();
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            logger.info("Rebuilt recipe suggest index: {} phrases, {} keys in {} ms",
+                    phrases.size(), prefixes.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Failed to rebuild recipe suggest index: {}", e.getMessage(), e);
+        }
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            change.run();
+            rankedByShortPrefix.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(Long recipeId, String title, List<String> ingredientNames) {
+        Map<PhraseKey, String> texts = new LinkedHashMap<>();
+        putText(texts, SuggestionType.TITLE, title);
+        ingredientNames.forEach(name -> putText(texts, SuggestionType.INGREDIENT, name));
+
+        List<Phrase> added = new ArrayList<>(texts.size());
+        texts.forEach((phraseKey, text) -> {
+            Phrase phrase = phrases.computeIfAbsent(phraseKey, k -> {
+                Phrase created = new Phrase(k.type(), k.key(), text);
+                wordStarts(k.key()).forEach(key -> prefixes.computeIfAbsent(key, x -> new HashSet<>()).add(created));
+                return created;
+            });
+            phrase.recipes++;
+            added.add(phrase);
+        });
+        recipePhrases.put(recipeId, added);
+    }
+
+    private void removeLocked(Long recipeId) {
+        List<Phrase> previous = recipePhrases.remove(recipeId);
+        if (previous == null) {
+            return;
+        }
+        for (Phrase phrase : previous) {
+            if (--phrase.recipes > 0) {
+                continue;
+            }
+            // Καμία συνταγή δεν τη χρησιμοποιεί πια
+            phrases.remove(new PhraseKey(phrase.type, phrase.key));
+            wordStarts(phrase.key).forEach(key -> {
+                Set<Phrase> keyPhrases = prefixes.get(key);
+                if (keyPhrases != null) {
+                    keyPhrases.remove(phrase);
+                    if (keyPhrases.isEmpty()) {
+                        prefixes.remove(key);
+                    }
+                }
+            });
+        }
+    }
+
+    private static void putText(Map<PhraseKey, String> texts, SuggestionType type, String text) {
+        String key = normalize(text);
+        if (!key.isEmpty()) {
+            texts.putIfAbsent(new PhraseKey(type, key), text.trim());
+        }
+    }
+
+    // "spaghetti carbonara" -> ["spaghetti carbonara", "carbonara"]
+    private static List<String> wordStarts(String key) {
+        List<String> starts = new ArrayList<>();
+        starts.add(key);
+        for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+            starts.add(key.substring(i + 1));
+        }
+        return starts;
+    }
+
+    // Οι λέξεις κανονικοποιημένες και χωρισμένες με ένα κενό, όπως στο SearchText
+    private static String normalize(String text) {
+        return String.join(" ", SearchText.tokenize(text));
+    }
+}
@@ -0,0 +1,51 @@
+package com.project.dass.ServiceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor token για τις σελίδες της αναζήτησης.
+ * Τα αποτελέσματα είναι ταξινομημένα κατά σχετικότητα, που δεν είναι μοναδικό κλειδί,
+ * οπότε εδώ κωδικοποιούμε απλώς το offset της επόμενης σελίδας.
+ * Το offset φτάνει έως {@link #MAX_OFFSET}: πιο βαθιές σελίδες δεν έχουν νόημα για αναζήτηση
+ * κατά σχετικότητα, και το όριο κρατά το offset + limit μακριά από overflow.
+ */
+record SearchCursor(int offset) {
+
+    static final int MAX_OFFSET = 10_000;
+
+    private static final String PREFIX = "SEARCH:";
+
+    String encode() {
+        String raw = PREFIX + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException αν το token είναι άκυρο ή το offset ξεπερνά το {@link #MAX_OFFSET}
+     */
+    static SearchCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        if (!raw.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+
+        try {
+            int offset = Integer.parseInt(raw.substring(PREFIX.length()));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            if (offset > MAX_OFFSET) {
+                throw new IllegalArgumentException("Cursor offset out of range");
+            }
+            return new SearchCursor(offset);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.project.dass.ServiceImpl;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Κανονικοποίηση κειμένου για την αναζήτηση: πεζά, χωρίς τόνους/διαλυτικά
+ * (π.χ. "Μουσακάς" -> "μουσακασ", "Crème" -> "creme") και διάσπαση σε λέξεις.
+ */
+final class SearchText {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchText() {
+    }
+
+    static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String folded = COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        // Το τελικό σίγμα (ς) να ταιριάζει με το σ, ώστε να βρίσκεται και ως πρόθεμα
+        return folded.replace('ς', 'σ');
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,31 +1,38 @@
 package com.project.dass.ServiceImpl;
 
+import com.project.dass.Model.PhotoFile;
 import com.project.dass.Model.Recipe;
 import com.project.dass.Model.RecipeStep;
+import com.project.dass.Model.StoredPhoto;
 import com.project.dass.Service.PhotoService;
+import com.project.dass.Service.PhotoStore;
+import com.project.dass.Service.PhotoVariantService;
+import com.project.dass.Service.RecipeResponseCache;
 import com.project.dass.Service.RecipeService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service("stepPhotoService")
 @Transactional // Ensures database operations are atomic
@@ -36,13 +43,24 @@ public class StepPhotoServiceImpl implements PhotoService {
             ".jpg", ".jpeg", ".png", ".gif", ".webp", ".bmp"
     );
 
-    @Value("${photos.directory:photos}")
-    private String photosDirectory;
+    // Streamed uploads get the same limit as multipart ones
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxFileSize;
 
     private final RecipeService recipeService;
-
-    public StepPhotoServiceImpl(RecipeService recipeService) {
+    private final RecipeResponseCache recipeResponseCache;
+    private final PhotoVariantService photoVariantService;
+    private final PhotoStore photoStore;
+    private final TransactionTemplate transactionTemplate;
+
+    public StepPhotoServiceImpl(RecipeService recipeService, RecipeResponseCache recipeResponseCache,
+                                PhotoVariantService photoVariantService, PhotoStore photoStore,
+                                PlatformTransactionManager transactionManager) {
         this.recipeService = recipeService;
+        this.recipeResponseCache = recipeResponseCache;
+        this.photoVariantService = photoVariantService;
+        this.photoStore = photoStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -61,6 +79,7 @@ public class StepPhotoServiceImpl implements PhotoService {
     }
 
     @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED) // The photo is recorded in a short transaction of its own
     public Optional<String> uploadPhoto(Map<String, Long> ids, MultipartFile file) {
         // Extract recipeId and stepId from map
         Optional<Long[]> idsOpt = extractIds(ids);
@@ -72,21 +91,15 @@ public class StepPhotoServiceImpl implements PhotoService {
         Long recipeId = idsOpt.get()[0];
         Long stepId = idsOpt.get()[1];
         
-        // Check if recipe exists
-        Optional<Recipe> recipeOpt = recipeService.getRecipeById(recipeId);
-        if (recipeOpt.isEmpty()) {
+        // Check if recipe exists and the step belongs to it (the steps are loaded lazily, so in a short transaction)
+        Optional<Boolean> stepFound = transactionTemplate.execute(status -> recipeService.getRecipeById(recipeId)
+                .map(recipe -> recipe.getSteps().stream().anyMatch(step -> step.getId().equals(stepId))));
+        if (stepFound.isEmpty()) {
             logger.warn("Recipe not found with ID: {}", recipeId);
             return Optional.empty();
         }
 
-        Recipe recipe = recipeOpt.get();
-        
-        // Check if step exists and belongs to this recipe
-        Optional<RecipeStep> stepOpt = recipe.getSteps().stream()
-                .filter(step -> step.getId().equals(stepId))
-                .findFirst();
-        
-        if (stepOpt.isEmpty()) {
+        if (!stepFound.get()) {
             logger.warn("Step not found with ID {} for recipe ID: {}", stepId, recipeId);
             return Optional.empty();
         }
@@ -115,65 +128,107 @@ public class StepPhotoServiceImpl implements PhotoService {
         }
 
         try {
-            // Get the backend folder (current working directory)
-            String backendRoot = System.getProperty("user.dir");
-            // Save to the same folder as recipe photos: photos/{recipeId}/
-            Path photosDir = Paths.get(backendRoot, photosDirectory, String.valueOf(recipeId));
-
-            // Create directory if it doesn't exist
-            if (!Files.exists(photosDir)) {
-                Files.createDirectories(photosDir);
-                logger.debug("Created photos directory for recipe ID: {}", recipeId);
-            }
-
-            // Generate unique filename with step ID prefix: stepId_uuid.extension
-            String uniqueFilename = stepId + "_" + UUID.randomUUID().toString() + fileExtension;
+            return store(recipeId, stepId, file.getInputStream());
+        } catch (IOException e) {
+            logger.error("Failed to upload photo for recipe ID {}, step ID {}: {}", 
+                    recipeId, stepId, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
 
-            // Save the file
-            Path filePath = photosDir.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED) // No transaction (or connection) while the body arrives
+    public Optional<String> uploadPhoto(Map<String, Long> ids, InputStream content) {
+        // Extract recipeId and stepId from map
+        Optional<Long[]> idsOpt = extractIds(ids);
+        if (idsOpt.isEmpty()) {
+            logger.warn("Invalid ids map provided - must contain 'recipeId' and 'stepId' keys");
+            return Optional.empty();
+        }
 
-            // Update step with the filename (stored in DB as imageUrl)
-            RecipeStep step = stepOpt.get();
-            // Store only the filename in the database (format: stepId_uuid.extension)
-            String imageUrl = uniqueFilename;
-            step.setImageUrl(imageUrl);
-            
-            // Save to database - this will update the recipe_step's imageUrl field
-            recipeService.saveRecipe(recipe);
-
-            logger.info("Successfully uploaded photo for recipe ID {}, step ID {}: {} (saved to DB as filename)", 
-                    recipeId, stepId, uniqueFilename);
-            // Return only what is saved in the database (the filename)
-            return Optional.of(imageUrl);
+        Long recipeId = idsOpt.get()[0];
+        Long stepId = idsOpt.get()[1];
 
+        try {
+            return store(recipeId, stepId, content);
         } catch (IOException e) {
-            logger.error("Failed to upload photo for recipe ID {}, step ID {}: {}", 
+            logger.error("Failed to upload photo for recipe ID {}, step ID {}: {}",
                     recipeId, stepId, e.getMessage(), e);
             return Optional.empty();
         }
     }
 
+    /**
+     * Store the photo (once per distinct content) and link it into photos/{recipeId}/, then set it as the
+     * step's photo (in the caller's transaction, or in a short one of its own for streamed uploads)
+     */
+    private Optional<String> store(Long recipeId, Long stepId, InputStream content) throws IOException {
+        // Filename with step ID prefix: stepId_sha256.extension (the extension of the actual image type)
+        // Store only the filename in the database (format: stepId_sha256.extension)
+        // One UPDATE of the step's image_url and the version bump (empty if the step is not in this recipe)
+        AtomicReference<String> replaced = new AtomicReference<>("");
+        Optional<StoredPhoto> stored = photoStore.store(recipeId, stepId + "_", content, maxFileSize.toBytes(),
+                photo -> {
+                    Optional<String> previous = transactionTemplate.execute(
+                            status -> recipeService.replaceStepImageUrl(recipeId, stepId, photo.filename()));
+                    previous.ifPresent(replaced::set);
+                    return previous.isPresent();
+                });
+        if (stored.isEmpty()) {
+            logger.warn("Rejected photo for recipe ID {}, step ID {}: not a supported image or larger than {}",
+                    recipeId, stepId, maxFileSize);
+            return Optional.empty();
+        }
+        if (!stored.get().recorded()) {
+            return Optional.empty();
+        }
+        String imageUrl = stored.get().filename();
+
+        // The step's previous photo: its link would keep the content (and its variants) stored forever
+        if (!replaced.get().isEmpty()) {
+            try {
+                photoStore.delete(recipeId, replaced.get());
+            } catch (IOException e) {
+                logger.warn("Failed to delete the previous photo {} of recipe ID {}, step ID {}: {}",
+                        replaced.get(), recipeId, stepId, e.getMessage());
+            }
+        }
+
+        // Invalidate the cached recipe JSON - it contains the photo filenames
+        recipeResponseCache.invalidate(recipeId);
+
+        // Resized variants are generated in the background; until then the original is served
+        photoVariantService.generateVariants(photoStore.canonical(stored.get().path()));
+
+        logger.info("Successfully uploaded photo for recipe ID {}, step ID {}: {} ({} bytes, sha256 {})",
+                recipeId, stepId, imageUrl, stored.get().size(), stored.get().sha256());
+        // Return only what is saved in the database (the filename)
+        return Optional.of(imageUrl);
+    }
+
     @Override
-    public Optional<Resource> getPhoto(Long recipeId, String filename) {
+    public Optional<PhotoFile> getPhoto(Long recipeId, String filename, Integer width) {
+        // The original, or its variant for the requested width
+        return getOriginal(recipeId, filename).map(photo -> photoVariantService.resolve(photo, width));
+    }
+
+    private Optional<PhotoFile> getOriginal(Long recipeId, String filename) {
         try {
-            String backendRoot = System.getProperty("user.dir");
             // Photos are stored in the same folder as recipe photos: photos/{recipeId}/
-            Path photoPath = Paths.get(backendRoot, photosDirectory, String.valueOf(recipeId), filename);
-
-            if (!Files.exists(photoPath) || !Files.isRegularFile(photoPath)) {
-                return Optional.empty();
-            }
+            Path photoPath = photoStore.locate(recipeId, filename);
 
-            Resource resource = new UrlResource(photoPath.toUri());
-            if (resource.exists() && resource.isReadable()) {
-                return Optional.of(resource);
-            } else {
+            // One stat call gives existence, type, size and last-modified time
+            BasicFileAttributes attributes = Files.readAttributes(photoPath, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
                 return Optional.empty();
             }
+            // Served from the shared stored file, where its variants are too
+            return Optional.of(new PhotoFile(photoStore.canonical(photoPath), attributes.size(),
+                    attributes.lastModifiedTime().toMillis()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
         } catch (Exception e) {
-            logger.error("Failed to get photo for recipe ID {} and filename {}: {}", 
-                    recipeId, filename, e.getMessage(), e);
+            logger.error("Failed to get photo for recipe ID {} and filename {}: {}", recipeId, filename, e.getMessage(), e);
             return Optional.empty();
         }
     }
@@ -221,31 +276,16 @@ public class StepPhotoServiceImpl implements PhotoService {
     @Override
     public boolean deletePhoto(Long recipeId, String filename) {
         try {
-            String backendRoot = System.getProperty("user.dir");
-            Path photoPath = Paths.get(backendRoot, photosDirectory, String.valueOf(recipeId), filename);
-
-            if (!Files.exists(photoPath)) {
+            // Delete the file (its content and variants go with the last photo using them)
+            if (!photoStore.delete(recipeId, filename)) {
                 return false;
             }
 
-            // Delete the file
-            Files.delete(photoPath);
+            // Clear the imageUrl of the step that has this filename
+            recipeService.clearStepImageUrl(recipeId, filename);
 
-            // Remove from step's imageUrl and update database
-            Optional<Recipe> recipeOpt = recipeService.getRecipeById(recipeId);
-            if (recipeOpt.isPresent()) {
-                Recipe recipe = recipeOpt.get();
-                
-                // Find the step that has this filename
-                recipe.getSteps().stream()
-                        .filter(step -> filename.equals(step.getImageUrl()))
-                        .findFirst()
-                        .ifPresent(step -> {
-                            step.setImageUrl(null);
-                            // Save to database - this will update the recipe_step's imageUrl field
-                            recipeService.saveRecipe(recipe);
-                        });
-            }
+            // Invalidate the cached recipe JSON - it contains the photo filenames
+            recipeResponseCache.invalidate(recipeId);
 
             logger.info("Successfully deleted photo for recipe ID {} and filename {}", recipeId, filename);
             return true;
@@ -291,17 +331,14 @@ public class StepPhotoServiceImpl implements PhotoService {
                 return true; // No photo to delete, consider it successful
             }
 
-            // Delete the file
-            String backendRoot = System.getProperty("user.dir");
-            Path photoPath = Paths.get(backendRoot, photosDirectory, String.valueOf(recipeId), imageUrl);
+            // Delete the file (its content and variants go with the last photo using them)
+            photoStore.delete(recipeId, imageUrl);
 
-            if (Files.exists(photoPath)) {
-                Files.delete(photoPath);
-            }
+            // Clear step's imageUrl in the database
+            recipeService.setStepImageUrl(recipeId, stepId, null);
 
-            // Clear step's imageUrl and update database
-            step.setImageUrl(null);
-            recipeService.saveRecipe(recipe);
+            // Invalidate the cached recipe JSON - it contains the photo filenames
+            recipeResponseCache.invalidate(recipeId);
 
             logger.info("Successfully deleted all photos for recipe ID {}, step ID: {}", recipeId, stepId);
             return true;
@@ -0,0 +1,153 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.ExecutionSnapshot;
+import com.project.dass.Model.ExecutionStatus;
+import com.project.dass.Model.StepTimer;
+import com.project.dass.Service.ExecutionSessionService;
+import com.project.dass.Service.RecipeProgressService;
+import com.project.dass.Service.StepTimerService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Όλα τα χρονόμετρα βρίσκονται σε ένα {@link TimingWheel} που προχωρά ένα thread ανά tick,
+ * αντί για ένα scheduled task ανά χρονόμετρο. Τα χρονόμετρα ζουν μόνο στη μνήμη:
+ * μετά από restart ο client τα ξεκινά ξανά.
+ */
+@Service
+public class StepTimerServiceImpl implements StepTimerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StepTimerServiceImpl.class);
+
+    static final String TIMER_EVENT = "timer";
+
+    // Ένα χρονόμετρο βήματος δεν ξεπερνά τη μία μέρα (και τα nanos του deadline μένουν μακριά από overflow)
+    static final int MAX_MINUTES = 24 * 60;
+
+    private final ExecutionSessionService executionSessionService;
+    private final RecipeProgressService recipeProgressService;
+    private final int maxPerSession;
+
+    private final TimingWheel<StepTimer> wheel;
+    private final AtomicLong timerIds = new AtomicLong();
+
+    // Τα χρονόμετρα κάθε εκτέλεσης, για ακύρωση και λίστα χωρίς σάρωση του wheel
+    private final Map<String, Map<Long, TimingWheel.Timeout<StepTimer>>> timersBySession = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "step-timer-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StepTimerServiceImpl(ExecutionSessionService executionSessionService,
+                                RecipeProgressService recipeProgressService,
+                                @Value("${recipes.timers.tick:100ms}") Duration tick,
+                                @Value("${recipes.timers.wheel-size:512}") int wheelSize,
+                                @Value("${recipes.timers.max-per-session:20}") int maxPerSession) {
+        this.executionSessionService = executionSessionService;
+        this.recipeProgressService = recipeProgressService;
+        this.maxPerSession = maxPerSession;
+        this.wheel = new TimingWheel<>(tick.toNanos(), wheelSize, System.nanoTime(), this::expired);
+        long tickNanos = tick.toNanos();
+        ticker.scheduleAtFixedRate(() -> wheel.expire(System.nanoTime()), tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Optional<StepTimer> start(String sessionId, int stepOrder, Integer minutes) {
+        if (minutes != null && (minutes <= 0 || minutes > MAX_MINUTES)) {
+            throw new IllegalArgumentException("Timer minutes must be between 1 and " + MAX_MINUTES);
+        }
+        Optional<ExecutionSnapshot> execution = executionSessionService.get(sessionId);
+        if (execution.isEmpty()) {
+            return Optional.empty();
+        }
+        if (execution.get().status() == ExecutionStatus.FINISHED) {
+            throw new IllegalStateException("Execution " + sessionId + " is finished");
+        }
+        Optional<Long> stepMinutes = recipeProgressService.getStepMinutes(execution.get().recipeId(), stepOrder);
+        if (stepMinutes.isEmpty()) {
+            return Optional.empty();
+        }
+        long durationMinutes = minutes != null ? minutes : stepMinutes.get();
+        if (durationMinutes <= 0) {
+            throw new IllegalArgumentException("Step " + stepOrder + " has no duration");
+        }
+        if (durationMinutes > MAX_MINUTES) {
+            throw new IllegalArgumentException("Step " + stepOrder + " is longer than " + MAX_MINUTES + " minutes");
+        }
+
+        long durationSeconds = TimeUnit.MINUTES.toSeconds(durationMinutes);
+        StepTimer timer = new StepTimer(timerIds.incrementAndGet(), sessionId, stepOrder, durationSeconds,
+                new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(durationSeconds)));
+        timersBySession.compute(sessionId, (id, timers) -> {
+            Map<Long, TimingWheel.Timeout<StepTimer>> sessionTimers = timers != null ? timers : new ConcurrentHashMap<>();
+            if (sessionTimers.size() >= maxPerSession) {
+                throw new IllegalStateException("Execution " + sessionId + " already has " + maxPerSession + " timers");
+            }
+            sessionTimers.put(timer.timerId(),
+                    wheel.schedule(timer, TimeUnit.SECONDS.toNanos(durationSeconds), System.nanoTime()));
+            return sessionTimers;
+        });
+        return Optional.of(timer);
+    }
+
+    @Override
+    public List<StepTimer> list(String sessionId) {
+        Map<Long, TimingWheel.Timeout<StepTimer>> timers = sessionId == null ? null : timersBySession.get(sessionId);
+        if (timers == null) {
+            return List.of();
+        }
+        return timers.values().stream()
+                .map(TimingWheel.Timeout::payload)
+                .sorted(Comparator.comparing(StepTimer::expiresAt).thenComparing(StepTimer::timerId))
+                .toList();
+    }
+
+    @Override
+    public boolean cancel(String sessionId, long timerId) {
+        TimingWheel.Timeout<StepTimer> timeout = remove(sessionId, timerId);
+        return timeout != null && wheel.cancel(timeout);
+    }
+
+    // Στο thread του wheel: δεν πρέπει να πετάξει, αλλιώς χάνονται τα υπόλοιπα του ίδιου tick
+    private void expired(StepTimer timer) {
+        try {
+            remove(timer.sessionId(), timer.timerId());
+            executionSessionService.publish(timer.sessionId(), TIMER_EVENT, timer);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to notify timer {} of execution {}: {}", timer.timerId(), timer.sessionId(), e.getMessage());
+        }
+    }
+
+    private TimingWheel.Timeout<StepTimer> remove(String sessionId, long timerId) {
+        Map<Long, TimingWheel.Timeout<StepTimer>> timers = sessionId == null ? null : timersBySession.get(sessionId);
+        if (timers == null) {
+            return null;
+        }
+        TimingWheel.Timeout<StepTimer> timeout = timers.remove(timerId);
+        // Το άδειο map φεύγει μέσα σε compute, όπως μπαίνουν και τα χρονόμετρα, ώστε να μη χαθεί ένα ταυτόχρονο start
+        timersBySession.computeIfPresent(sessionId, (id, current) -> current.isEmpty() ? null : current);
+        return timeout;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,159 @@
+package com.project.dass.ServiceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel (όπως το HashedWheelTimer του Netty): ένας κυκλικός πίνακας από buckets,
+ * ένα ανά tick. Κάθε χρονόμετρο μπαίνει στο bucket του tick όπου λήγει, με έναν μετρητή
+ * των πλήρων περιστροφών που απομένουν.
+ * <ul>
+ *     <li>schedule/cancel: O(1), μια εισαγωγή/αφαίρεση σε διπλά συνδεδεμένη λίστα</li>
+ *     <li>κάθε tick: μόνο το bucket του (κατά μέσο όρο size / wheelSize χρονόμετρα)</li>
+ *     <li>ένα αντικείμενο ανά χρονόμετρο (το ίδιο το Timeout είναι ο κόμβος της λίστας)</li>
+ * </ul>
+ * Ο χρόνος δίνεται από τον caller (System.nanoTime()), ώστε η κλάση να μη χρειάζεται δικό της thread.
+ * Το {@link #expire(long)} καλείται από ένα μόνο thread.
+ */
+final class TimingWheel<T> {
+
+    static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineNanos;
+        // Πλήρεις περιστροφές μέχρι τη λήξη
+        private long rounds;
+        // -1 όταν έχει λήξει ή ακυρωθεί
+        private int bucket = -1;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T payload, long deadlineNanos) {
+            this.payload = payload;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        T payload() {
+            return payload;
+        }
+
+        long deadlineNanos() {
+            return deadlineNanos;
+        }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final Timeout<T>[] buckets;
+    private final long startNanos;
+    private final Consumer<T> onExpire;
+
+    // Το επόμενο tick που θα επεξεργαστεί το expire (guarded by this)
+    private long tick;
+    private int size;
+
+    // Μόνο από το thread του expire: ξαναχρησιμοποιείται σε κάθε tick
+    private final List<Timeout<T>> expired = new ArrayList<>();
+
+    TimingWheel(long tickNanos, int wheelSize, long startNanos, Consumer<T> onExpire) {
+        if (tickNanos <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickNanos and wheelSize must be positive");
+        }
+        // Δύναμη του 2, ώστε το bucket να είναι tick & mask
+        int length = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickNanos = tickNanos;
+        this.mask = length - 1;
+        @SuppressWarnings("unchecked")
+        Timeout<T>[] buckets = (Timeout<T>[]) new Timeout<?>[length];
+        this.buckets = buckets;
+        this.startNanos = startNanos;
+        this.onExpire = onExpire;
+    }
+
+    Timeout<T> schedule(T payload, long delayNanos, long nowNanos) {
+        Timeout<T> timeout = new Timeout<>(payload, nowNanos + Math.max(delayNanos, 0));
+        synchronized (this) {
+            // Λήγει όταν επεξεργαστεί το tick που περιέχει το deadline, δηλαδή ποτέ νωρίτερα
+            long deadlineTick = Math.max((timeout.deadlineNanos - startNanos) / tickNanos, tick);
+            timeout.rounds = (deadlineTick - tick) / buckets.length;
+            link(timeout, (int) (deadlineTick & mask));
+            size++;
+        }
+        return timeout;
+    }
+
+    // false αν είχε ήδη λήξει ή ακυρωθεί
+    synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket < 0) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Επεξεργάζεται όλα τα ticks που έχουν περάσει μέχρι το {@code nowNanos} (και όσα έμειναν πίσω)
+     * και καλεί το onExpire για όσα έληξαν, εκτός lock.
+     * @return Πόσα χρονόμετρα έληξαν
+     */
+    int expire(long nowNanos) {
+        synchronized (this) {
+            long elapsedTicks = (nowNanos - startNanos) / tickNanos;
+            while (tick < elapsedTicks) {
+                Timeout<T> timeout = buckets[(int) (tick & mask)];
+                while (timeout != null) {
+                    Timeout<T> next = timeout.next;
+                    if (timeout.rounds == 0) {
+                        unlink(timeout);
+                        size--;
+                        expired.add(timeout);
+                    } else {
+                        timeout.rounds--;
+                    }
+                    timeout = next;
+                }
+                tick++;
+            }
+        }
+
+        int count = expired.size();
+        try {
+            for (Timeout<T> timeout : expired) {
+                onExpire.accept(timeout.payload);
+            }
+        } finally {
+            expired.clear();
+        }
+        return count;
+    }
+
+    private void link(Timeout<T> timeout, int bucket) {
+        Timeout<T> head = buckets[bucket];
+        timeout.bucket = bucket;
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[bucket] = timeout;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.bucket = -1;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+}
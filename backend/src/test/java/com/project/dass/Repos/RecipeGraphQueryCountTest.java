@@ -0,0 +1,67 @@
+package com.project.dass.Repos;
+
+import com.project.dass.Model.Recipe;
+import com.project.dass.Service.RecipeService;
+import com.project.dass.TestRecipes;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Ελέγχει ότι το GET /recipes/{id} φορτώνει όλο το graph σε σταθερό αριθμό SQL statements.
+// Πλήρες context (το DassApplication κάνει component scan σε όλα τα beans) πάνω σε embedded H2.
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase
+@Transactional
+class RecipeGraphQueryCountTest {
+
+    // ingredients + steps + imageUrls + steps[].ingredients
+    private static final long MAX_STATEMENTS = 4;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void detailViewUsesFixedNumberOfStatements() {
+        long fewSteps = countStatementsForRecipeWithSteps(2);
+        long manySteps = countStatementsForRecipeWithSteps(20);
+
+        assertTrue(manySteps <= MAX_STATEMENTS, "Expected at most " + MAX_STATEMENTS + " statements, got " + manySteps);
+        assertEquals(fewSteps, manySteps);
+    }
+
+    private long countStatementsForRecipeWithSteps(int stepCount) {
+        Long id = recipeRepository.save(TestRecipes.withSteps("Recipe with " + stepCount + " steps", stepCount)).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Recipe recipe = recipeService.getRecipeDetails(id).orElseThrow();
+        // Ό,τι θα διάβαζε ο Jackson κατά το serialization
+        assertEquals(stepCount * 2, recipe.getIngredients().size());
+        assertEquals(stepCount, recipe.getSteps().size());
+        assertEquals(2, recipe.getImageUrls().size());
+        recipe.getSteps().forEach(step -> assertEquals(2, step.getIngredients().size()));
+
+        return statistics.getPrepareStatementCount();
+    }
+}
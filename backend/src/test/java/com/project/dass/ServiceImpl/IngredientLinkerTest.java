@@ -0,0 +1,114 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.Ingredient;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Η σύνδεση υλικών βημάτων στο saveRecipe, για συνταγές με εκατοντάδες υλικά:
+// ίδιο αποτέλεσμα με την παλιά γραμμική αναζήτηση (πρώτο υλικό με ίδια name, quantity, unit).
+class IngredientLinkerTest {
+
+    private static final int STEP_COUNT = 100;
+
+    @Test
+    void linksStepIngredientsToRecipeInstances() {
+        for (int ingredientCount : new int[]{100, 300, 600}) {
+            List<Ingredient> ingredients = ingredients(ingredientCount);
+            List<List<Ingredient>> steps = stepCopies(ingredients);
+
+            IngredientLinker linker = new IngredientLinker(ingredients);
+            for (int s = 0; s < steps.size(); s++) {
+                List<Ingredient> linked = linker.link(steps.get(s));
+                assertEquals(steps.get(s).size(), linked.size());
+                for (int i = 0; i < linked.size(); i++) {
+                    assertSame(ingredients.get((s * 3 + i) % ingredients.size()), linked.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void duplicateIngredientsLinkToTheFirstOne() {
+        Ingredient first = ingredient(null, "Salt", 5.0, "gr");
+        Ingredient second = ingredient(null, "Salt", 5.0, "gr");
+
+        List<Ingredient> linked = new IngredientLinker(List.of(first, second))
+                .link(List.of(ingredient(null, "Salt", 5.0, "gr")));
+
+        assertEquals(1, linked.size());
+        assertSame(first, linked.get(0));
+    }
+
+    @Test
+    void idTakesPrecedenceOverFields() {
+        Ingredient salt = ingredient(1L, "Salt", 5.0, "gr");
+        Ingredient pepper = ingredient(2L, "Pepper", 1.0, "gr");
+
+        // Το βήμα αναφέρει το id 2 με τα παλιά πεδία του αλατιού (π.χ. μετά από μετονομασία)
+        List<Ingredient> linked = new IngredientLinker(List.of(salt, pepper))
+                .link(List.of(ingredient(2L, "Salt", 5.0, "gr")));
+
+        assertEquals(1, linked.size());
+        assertSame(pepper, linked.get(0));
+    }
+
+    @Test
+    void unknownStepIngredientsAreSkipped() {
+        Ingredient salt = ingredient(1L, "Salt", 5.0, "gr");
+
+        List<Ingredient> linked = new IngredientLinker(List.of(salt)).link(List.of(
+                ingredient(99L, "Sugar", 5.0, "gr"),
+                ingredient(null, "Salt", 10.0, "gr"),
+                ingredient(null, "Salt", 5.0, "gr")));
+
+        assertEquals(List.of(salt), linked);
+    }
+
+    @Test
+    void sameIngredientsComparesInstancesIgnoringOrder() {
+        Ingredient salt = ingredient(null, "Salt", 5.0, "gr");
+        Ingredient pepper = ingredient(null, "Pepper", 1.0, "gr");
+
+        assertTrue(IngredientLinker.sameIngredients(List.of(salt, pepper), List.of(pepper, salt)));
+        assertFalse(IngredientLinker.sameIngredients(List.of(salt), List.of(ingredient(null, "Salt", 5.0, "gr"))));
+        assertFalse(IngredientLinker.sameIngredients(List.of(salt), List.of(salt, pepper)));
+    }
+
+    private static Ingredient ingredient(Long id, String name, Double quantity, String unit) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setId(id);
+        ingredient.setName(name);
+        ingredient.setQuantity(quantity);
+        ingredient.setUnit(unit);
+        return ingredient;
+    }
+
+    private static List<Ingredient> ingredients(int count) {
+        List<Ingredient> ingredients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ingredients.add(ingredient(null, "Ingredient " + i, (double) (i % 7 + 1) * 50, i % 2 == 0 ? "gr" : "ml"));
+        }
+        return ingredients;
+    }
+
+    // Όπως τα στέλνει ο client στο POST: αντίγραφα χωρίς id, 10 υλικά ανά βήμα
+    private static List<List<Ingredient>> stepCopies(List<Ingredient> ingredients) {
+        List<List<Ingredient>> steps = new ArrayList<>(STEP_COUNT);
+        for (int s = 0; s < STEP_COUNT; s++) {
+            List<Ingredient> step = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Ingredient source = ingredients.get((s * 3 + i) % ingredients.size());
+                step.add(ingredient(null, source.getName(), source.getQuantity(), source.getUnit()));
+            }
+            steps.add(step);
+        }
+        return steps;
+    }
+}
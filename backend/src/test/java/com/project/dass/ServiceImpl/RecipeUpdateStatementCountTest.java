@@ -0,0 +1,209 @@
+package com.project.dass.ServiceImpl;
+
+import com.project.dass.Model.Ingredient;
+import com.project.dass.Model.Recipe;
+import com.project.dass.Repos.RecipeRepository;
+import com.project.dass.Service.RecipeService;
+import com.project.dass.TestRecipes;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Benchmark του PUT και του PATCH /recipes/{id}: πόσα SQL statements κοστίζει μια μικρή αλλαγή σε συνταγή 30 βημάτων.
+// Πριν το diff ανά id, κάθε update έσβηνε και ξανάγραφε όλα τα ingredients, steps και step_ingredients.
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase
+@Transactional
+class RecipeUpdateStatementCountTest {
+
+    private static final int STEP_COUNT = 30;
+
+    // recipe + imageUrls + ingredients + steps + steps[].ingredients + ένα UPDATE.
+    // Όταν αλλάζουν μόνο children, το UPDATE του version (OPTIMISTIC_FORCE_INCREMENT) γίνεται στο commit.
+    private static final long MAX_STATEMENTS = 6;
+
+    // PATCH: recipe + το child που αναφέρει + ένα UPDATE, και τα ingredients/steps που διαβάζει
+    // το search index για το νέο κείμενο (με ζεστό second-level cache μένουν μόνο τα UPDATEs)
+    private static final long MAX_PATCH_STATEMENTS = 5;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Test
+    void titleEditUpdatesOnlyTheRecipeRow() {
+        Statistics statistics = update(payload -> payload.setTitle("Recipe with a fixed typo"), true);
+
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertNoChildRewrites(statistics);
+    }
+
+    @Test
+    void stepEditUpdatesOnlyThatStep() {
+        Statistics statistics = update(payload -> payload.getSteps().get(14).setDescription("Stir gently"), true);
+
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertNoChildRewrites(statistics);
+    }
+
+    @Test
+    void clientWithoutIdsStillMatchesChildren() {
+        Statistics statistics = update(payload -> payload.setTitle("Recipe with a fixed typo"), false);
+
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertNoChildRewrites(statistics);
+    }
+
+    @Test
+    void removedIngredientIsUnlinkedFromItsStep() {
+        Long id = createRecipe().getId();
+        Recipe payload = loadPayload(id, true);
+        Ingredient removed = payload.getIngredients().remove(0);
+        payload.getSteps().forEach(step -> step.getIngredients().removeIf(ing -> ing.getId().equals(removed.getId())));
+
+        recipeService.updateRecipe(id, payload, payload.getVersion());
+        entityManager.flush();
+        entityManager.clear();
+
+        Recipe updated = recipeService.getRecipeDetails(id).orElseThrow();
+        assertEquals(STEP_COUNT * 2 - 1, updated.getIngredients().size());
+        assertEquals(STEP_COUNT * 2 - 1, updated.getSteps().stream().mapToInt(step -> step.getIngredients().size()).sum());
+    }
+
+    @Test
+    void titlePatchSendsOnlyTheChangedField() {
+        Long id = createRecipe().getId();
+        Recipe recipe = loadPayload(id, true);
+
+        Statistics statistics = patch(id, recipe.getVersion(), "{\"title\":\"Recipe with a fixed typo\"}");
+
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertNoChildRewrites(statistics);
+    }
+
+    @Test
+    void stepPatchUpdatesOnlyThatStep() {
+        Long id = createRecipe().getId();
+        Recipe recipe = loadPayload(id, true);
+        Long stepId = recipe.getSteps().get(14).getId();
+
+        Statistics statistics = patch(id, recipe.getVersion(),
+                "{\"steps\":{\"" + stepId + "\":{\"description\":\"Stir gently\"}}}");
+
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertNoChildRewrites(statistics);
+    }
+
+    @Test
+    void patchRejectsReadOnlyAndUnknownMembers() {
+        Long id = createRecipe().getId();
+        Recipe recipe = loadPayload(id, true);
+        Long stepId = recipe.getSteps().get(0).getId();
+        Long ingredientId = recipe.getIngredients().get(0).getId();
+        Long otherStepId = createRecipe().getSteps().get(0).getId();
+
+        for (String body : new String[]{
+                "{\"title\":\"Renamed\",\"version\":0}",
+                "{\"id\":42}",
+                "{\"dateCreated\":null}",
+                "{\"titel\":\"Renamed\"}",
+                "{\"steps\":{\"" + stepId + "\":{\"descripton\":\"Stir\"}}}",
+                "{\"steps\":{\"" + stepId + "\":{\"id\":1}}}",
+                "{\"ingredients\":{\"" + ingredientId + "\":{\"amount\":2}}}",
+                // id που δεν είναι child αυτής της συνταγής: όχι νέο child, όχι σιωπηλό no-op
+                "{\"steps\":{\"" + otherStepId + "\":{\"stepOrder\":9,\"title\":\"Other\"}}}",
+                "{\"ingredients\":{\"999999\":{\"name\":\"Salt\"}}}",
+                "{\"ingredients\":{\"999999\":null}}"}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> recipeService.patchRecipe(id, jsonMapper.readTree(body), recipe.getVersion()), body);
+        }
+        entityManager.clear();
+
+        Recipe unchanged = recipeService.getRecipeDetails(id).orElseThrow();
+        assertEquals(recipe.getTitle(), unchanged.getTitle());
+        assertEquals(recipe.getVersion(), unchanged.getVersion());
+    }
+
+    private Statistics patch(Long id, Long version, String body) {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        recipeService.patchRecipe(id, jsonMapper.readTree(body), version).orElseThrow();
+        entityManager.flush();
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= MAX_PATCH_STATEMENTS,
+                "Expected at most " + MAX_PATCH_STATEMENTS + " statements, got " + statements);
+        return statistics;
+    }
+
+    private Statistics update(Consumer<Recipe> edit, boolean keepIds) {
+        Long id = createRecipe().getId();
+        Recipe payload = loadPayload(id, keepIds);
+        edit.accept(payload);
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        recipeService.updateRecipe(id, payload, payload.getVersion()).orElseThrow();
+        entityManager.flush();
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= MAX_STATEMENTS, "Expected at most " + MAX_STATEMENTS + " statements, got " + statements);
+        return statistics;
+    }
+
+    private static void assertNoChildRewrites(Statistics statistics) {
+        assertEquals(0, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityDeleteCount());
+        assertEquals(0, statistics.getCollectionRecreateCount());
+        assertEquals(0, statistics.getCollectionRemoveCount());
+    }
+
+    // Το σώμα ενός PUT: η συνταγή όπως τη στέλνει το GET, μετά από JSON round trip (detached αντικείμενα)
+    private Recipe loadPayload(Long id, boolean keepIds) {
+        String json = jsonMapper.writeValueAsString(recipeService.getRecipeDetails(id).orElseThrow());
+        entityManager.clear();
+        Recipe payload = jsonMapper.readValue(json, Recipe.class);
+        if (!keepIds) {
+            payload.getIngredients().forEach(ingredient -> ingredient.setId(null));
+            payload.getSteps().forEach(step -> {
+                step.setId(null);
+                step.getIngredients().forEach(ingredient -> ingredient.setId(null));
+            });
+        }
+        return payload;
+    }
+
+    private Recipe createRecipe() {
+        Recipe saved = recipeRepository.save(TestRecipes.withSteps("Recipe with a typpo", STEP_COUNT));
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+}
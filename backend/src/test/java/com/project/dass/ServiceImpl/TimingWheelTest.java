@@ -0,0 +1,105 @@
+package com.project.dass.ServiceImpl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Το timing wheel των χρονομέτρων βημάτων με ελεγχόμενο χρόνο, και με εκατοντάδες χιλιάδες
+// χρονόμετρα (όσα θα είχαν πολλοί μάγειρες μαζί).
+class TimingWheelTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int WHEEL_SIZE = 512;
+    private static final int TIMER_COUNT = 500_000;
+
+    @Test
+    void expiresEachTimerOnTheFirstTickAfterItsDeadline() {
+        List<Integer> expired = new ArrayList<>();
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0, expired::add);
+
+        // Μικρότερο, ίσο και πολύ μεγαλύτερο από μια περιστροφή (512 * 100ms)
+        long[] delays = {TICK / 2, 3 * TICK, WHEEL_SIZE * TICK, TimeUnit.MINUTES.toNanos(90)};
+        for (int i = 0; i < delays.length; i++) {
+            wheel.schedule(i, delays[i], 0);
+        }
+
+        for (int i = 0; i < delays.length; i++) {
+            long deadline = delays[i];
+            wheel.expire(deadline - 1);
+            assertEquals(i, expired.size(), "timer " + i + " expired early");
+            // Το tick που περιέχει το deadline πρέπει να έχει περάσει ολόκληρο
+            wheel.expire((deadline / TICK + 1) * TICK);
+            assertEquals(List.of(0, 1, 2, 3).subList(0, i + 1), expired);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledTimersNeverExpire() {
+        List<Integer> expired = new ArrayList<>();
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0, expired::add);
+
+        TimingWheel.Timeout<Integer> first = wheel.schedule(1, 10 * TICK, 0);
+        TimingWheel.Timeout<Integer> second = wheel.schedule(2, 10 * TICK, 0);
+        wheel.schedule(3, 10 * TICK, 0);
+
+        assertTrue(wheel.cancel(second));
+        assertFalse(wheel.cancel(second));
+        assertTrue(wheel.cancel(first));
+        wheel.expire(11 * TICK);
+
+        assertEquals(List.of(3), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void scheduleCancelAndExpireManyTimers() {
+        long[] now = new long[1];
+        BitSet expired = new BitSet(TIMER_COUNT);
+        List<String> errors = new ArrayList<>();
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0, timer -> {
+            if (expired.get(timer)) {
+                errors.add("timer " + timer + " expired twice");
+            }
+            if (now[0] < delay(timer)) {
+                errors.add("timer " + timer + " expired early");
+            }
+            expired.set(timer);
+        });
+        List<TimingWheel.Timeout<Integer>> timeouts = new ArrayList<>(TIMER_COUNT);
+
+        for (int i = 0; i < TIMER_COUNT; i++) {
+            timeouts.add(wheel.schedule(i, delay(i), 0));
+        }
+        // Οι μισοί ακυρώνονται (ο μάγειρας σταμάτησε το χρονόμετρο)
+        for (int i = 0; i < TIMER_COUNT; i += 2) {
+            assertTrue(wheel.cancel(timeouts.get(i)));
+        }
+
+        // Δύο ώρες σε ticks των 100ms
+        long ticks = TimeUnit.MINUTES.toNanos(121) / TICK;
+        for (long tick = 1; tick <= ticks; tick++) {
+            now[0] = tick * TICK;
+            wheel.expire(now[0]);
+        }
+
+        assertEquals(List.of(), errors);
+        assertEquals(TIMER_COUNT / 2, expired.cardinality());
+        for (int i = 0; i < TIMER_COUNT; i++) {
+            assertEquals(i % 2 == 1, expired.get(i), "timer " + i);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    // Διάρκειες βημάτων από 1 έως 120 λεπτά
+    private static long delay(int timer) {
+        return TimeUnit.MINUTES.toNanos(timer % 120 + 1);
+    }
+}
@@ -0,0 +1,37 @@
+package com.project.dass;
+
+import com.project.dass.Model.*;
+
+// Κοινό fixture των tests: συνταγή με stepCount βήματα, δύο υλικά ανά βήμα και δύο εικόνες (χωρίς αποθήκευση)
+public final class TestRecipes {
+
+    private TestRecipes() {
+    }
+
+    public static Recipe withSteps(String title, int stepCount) {
+        Recipe recipe = new Recipe();
+        recipe.setTitle(title);
+        recipe.setCategory(RecipeCategory.PASTA);
+        recipe.setDifficulty(DifficultyLevel.EASY);
+        recipe.setTotalTimeMinutes(stepCount * 5);
+        recipe.getImageUrls().add("a.jpg");
+        recipe.getImageUrls().add("b.jpg");
+
+        for (int i = 1; i <= stepCount; i++) {
+            RecipeStep step = new RecipeStep();
+            step.setStepOrder(i);
+            step.setTitle("Step " + i);
+            step.setDurationMinutes(5);
+            for (int j = 0; j < 2; j++) {
+                Ingredient ingredient = new Ingredient();
+                ingredient.setName("Ingredient " + i + "-" + j);
+                ingredient.setQuantity(1.0);
+                ingredient.setUnit("gr");
+                recipe.addIngredient(ingredient);
+                step.getIngredients().add(ingredient);
+            }
+            recipe.addStep(step);
+        }
+        return recipe;
+    }
+}
@@ -4,7 +4,11 @@ import { api, type Recipe } from '~/lib/api';
 interface RecipesContextType {
   recipes: Recipe[];
   loading: boolean;
+  hasMore: boolean;
+  loadingMore: boolean;
+  loadMoreRecipes: () => Promise<void>;
   getRecipe: (id: string) => Recipe | undefined;
+  loadRecipe: (id: string) => Promise<void>;
   createRecipe: (recipe: Omit<Recipe, 'id'>) => Promise<void>;
   updateRecipe: (id: string, recipe: Partial<Recipe>) => Promise<void>;
   deleteRecipe: (id: string) => Promise<void>;
@@ -16,12 +20,19 @@ const RecipesContext = createContext<RecipesContextType | undefined>(undefined);
 export function RecipesProvider({ children }: { children: React.ReactNode }) {
   const [recipes, setRecipes] = useState<Recipe[]>([]);
   const [loading, setLoading] = useState(true);
+  // Pages are loaded on demand: the cursor of the next one, or null after the last
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  // Recipes opened directly (e.g. by URL) that are not in the loaded pages
+  const [opened, setOpened] = useState<Record<string, Recipe>>({});
 
   const refreshRecipes = async () => {
     setLoading(true);
     try {
-      const data = await api.getRecipes();
-      setRecipes(data);
+      const page = await api.getRecipes();
+      setRecipes(page.recipes);
+      setNextCursor(page.nextCursor);
+      setOpened({});
     } catch (error) {
       console.error('Failed to fetch recipes:', error);
     } finally {
@@ -29,13 +40,38 @@ export function RecipesProvider({ children }: { children: React.ReactNode }) {
     }
   };
 
+  const loadMoreRecipes = async () => {
+    if (!nextCursor || loadingMore) return;
+    setLoadingMore(true);
+    try {
+      const page = await api.getRecipes(nextCursor);
+      setRecipes(loaded => [...loaded, ...page.recipes]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Failed to fetch more recipes:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     refreshRecipes();
   }, []);
 
   const getRecipe = (id: string) => {
     // We convert ID to string for comparison, as URL params are strings
-    return recipes.find(r => String(r.id) === id);
+    return recipes.find(r => String(r.id) === id) ?? opened[id];
+  };
+
+  // Fetches a recipe that is not on a loaded page, so getRecipe finds it
+  const loadRecipe = async (id: string) => {
+    if (getRecipe(id)) return;
+    try {
+      const recipe = await api.getRecipe(id);
+      setOpened(current => ({ ...current, [id]: recipe }));
+    } catch (error) {
+      console.error('Failed to fetch recipe:', error);
+    }
   };
 
   const createRecipe = async (recipe: Omit<Recipe, 'id'>) => {
@@ -58,7 +94,11 @@ export function RecipesProvider({ children }: { children: React.ReactNode }) {
       value={{
         recipes,
         loading,
+        hasMore: nextCursor !== null,
+        loadingMore,
+        loadMoreRecipes,
         getRecipe,
+        loadRecipe,
         createRecipe,
         updateRecipe,
         deleteRecipe,
@@ -17,6 +17,34 @@ export interface RecipeStep {
   ingredients?: Ingredient[]; // Linked ingredients
 }
 
+export interface StepProgress {
+  stepOrder: number;
+  progress: number;
+}
+
+export type ExecutionStatus = "RUNNING" | "PAUSED" | "FINISHED";
+
+export interface ExecutionSnapshot {
+  sessionId: string;
+  recipeId: number;
+  status: ExecutionStatus;
+  sequence: number; // Grows with every change; older events are ignored
+  completedSteps: number;
+  totalSteps: number;
+  completedStepOrder: number | null;
+  nextStepOrder: number | null;
+  progress: number;
+  elapsedSeconds: number;
+}
+
+export interface StepTimer {
+  timerId: number;
+  sessionId: string;
+  stepOrder: number;
+  durationSeconds: number;
+  expiresAt: string;
+}
+
 export type Difficulty = "EASY" | "MEDIUM" | "HARD";
 export type Category = "PASTA" | "MEAT" | "VEGETARIAN" | "DESSERT" | "SOUP";
 
@@ -34,11 +62,21 @@ export interface Recipe {
   dateCreated?: string;
 }
 
+export interface RecipePage {
+  recipes: Recipe[];
+  nextCursor: string | null;
+}
+
 export const api = {
-  getRecipes: async (): Promise<Recipe[]> => {
-    const res = await fetch(`${API_URL}/recipes`);
+  // One keyset page; the cursor for the next one comes back in X-Next-Cursor (null on the last page)
+  getRecipes: async (cursor?: string | null): Promise<RecipePage> => {
+    const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : "";
+    const res = await fetch(`${API_URL}/recipes${query}`);
     if (!res.ok) throw new Error("Failed to fetch recipes");
-    return res.json();
+    return {
+      recipes: await res.json(),
+      nextCursor: res.headers.get("X-Next-Cursor"),
+    };
   },
 
   getRecipe: async (id: string | number): Promise<Recipe> => {
@@ -77,12 +115,12 @@ export const api = {
     if (!res.ok) throw new Error("Failed to delete recipe");
   },
 
+  // Photos are sent as the raw body, which the backend streams straight to disk
   uploadPhoto: async (recipeId: number, file: File): Promise<string> => {
-    const formData = new FormData();
-    formData.append("file", file);
     const res = await fetch(`${API_URL}/recipes/${recipeId}/photo`, {
       method: "POST",
-      body: formData,
+      headers: { "Content-Type": file.type || "image/*" },
+      body: file,
     });
     if (!res.ok) throw new Error("Failed to upload photo");
     return res.text();
@@ -93,13 +131,12 @@ export const api = {
     stepId: number,
     file: File,
   ): Promise<string> => {
-    const formData = new FormData();
-    formData.append("file", file);
     const res = await fetch(
       `${API_URL}/recipes/${recipeId}/steps/${stepId}/photo`,
       {
         method: "POST",
-        body: formData,
+        headers: { "Content-Type": file.type || "image/*" },
+        body: file,
       },
     );
     if (!res.ok) throw new Error("Failed to upload step photo");
@@ -116,4 +153,79 @@ export const api = {
     if (!res.ok) throw new Error("Failed to get progress");
     return res.json();
   },
+
+  // Progress after each step, fetched once when execution starts
+  getProgressCurve: async (id: number): Promise<StepProgress[]> => {
+    const res = await fetch(`${API_URL}/recipes/${id}/progress/curve`);
+    if (!res.ok) throw new Error("Failed to get progress curve");
+    return res.json();
+  },
+
+  // Server-side execution sessions: state changes are pushed over Server-Sent Events
+  startExecution: async (recipeId: number): Promise<ExecutionSnapshot> => {
+    const res = await fetch(`${API_URL}/recipes/${recipeId}/executions`, {
+      method: "POST",
+    });
+    if (!res.ok) throw new Error("Failed to start execution");
+    return res.json();
+  },
+
+  changeExecution: async (
+    sessionId: string,
+    action: "advance" | "pause" | "resume",
+  ): Promise<ExecutionSnapshot> => {
+    const res = await fetch(`${API_URL}/executions/${sessionId}/${action}`, {
+      method: "POST",
+    });
+    if (!res.ok) throw new Error(`Failed to ${action} execution`);
+    return res.json();
+  },
+
+  // Returns a function that closes the stream. EventSource reconnects on its own
+  // (e.g. after the server evicts an idle session), so only close it when done.
+  subscribeExecution: (
+    sessionId: string,
+    onChange: (snapshot: ExecutionSnapshot) => void,
+    onTimer?: (timer: StepTimer) => void,
+  ): (() => void) => {
+    const source = new EventSource(`${API_URL}/executions/${sessionId}/events`);
+    let lastSequence = -1;
+    source.addEventListener("progress", (event) => {
+      const snapshot: ExecutionSnapshot = JSON.parse(
+        (event as MessageEvent).data,
+      );
+      if (snapshot.sequence < lastSequence) return;
+      lastSequence = snapshot.sequence;
+      onChange(snapshot);
+      if (snapshot.status === "FINISHED") source.close();
+    });
+    // A step timer ran out
+    source.addEventListener("timer", (event) => {
+      onTimer?.(JSON.parse((event as MessageEvent).data));
+    });
+    return () => source.close();
+  },
+
+  // Server-side step timer: defaults to the step's duration
+  startStepTimer: async (
+    sessionId: string,
+    stepOrder: number,
+    minutes?: number,
+  ): Promise<StepTimer> => {
+    const query = minutes ? `&minutes=${minutes}` : "";
+    const res = await fetch(
+      `${API_URL}/executions/${sessionId}/timers?stepOrder=${stepOrder}${query}`,
+      { method: "POST" },
+    );
+    if (!res.ok) throw new Error("Failed to start timer");
+    return res.json();
+  },
+
+  cancelStepTimer: async (sessionId: string, timerId: number): Promise<void> => {
+    const res = await fetch(
+      `${API_URL}/executions/${sessionId}/timers/${timerId}`,
+      { method: "DELETE" },
+    );
+    if (!res.ok) throw new Error("Failed to cancel timer");
+  },
 };
@@ -1,7 +1,12 @@
 import { useState, useEffect } from "react";
 import { Link, useParams, useNavigate } from "react-router";
 import { useRecipes } from "~/context/RecipesContext";
-import { api } from "~/lib/api";
+import {
+  api,
+  type ExecutionSnapshot,
+  type StepProgress,
+  type StepTimer,
+} from "~/lib/api";
 import { Button } from "~/components/ui/button";
 import { Card, CardContent, CardHeader, CardTitle } from "~/components/ui/card";
 import { Progress } from "~/components/ui/progress";
@@ -9,10 +14,62 @@ import { Progress } from "~/components/ui/progress";
 export default function RecipeExecute() {
   const { id } = useParams();
   const navigate = useNavigate();
-  const { getRecipe } = useRecipes();
+  const { getRecipe, loadRecipe } = useRecipes();
 
   const [currentStepIndex, setCurrentStepIndex] = useState(0);
   const [progressValue, setProgressValue] = useState(0);
+  const [progressCurve, setProgressCurve] = useState<StepProgress[] | null>(
+    null,
+  );
+  const [execution, setExecution] = useState<ExecutionSnapshot | null>(null);
+  const [timers, setTimers] = useState<StepTimer[]>([]);
+  const [expiredTimer, setExpiredTimer] = useState<StepTimer | null>(null);
+
+  const applySnapshot = (snapshot: ExecutionSnapshot) => {
+    setExecution(snapshot);
+    setCurrentStepIndex(snapshot.completedSteps);
+    setProgressValue(snapshot.progress);
+  };
+
+  // The run lives on the server and progress is pushed over SSE.
+  // If it cannot start, step locally with the progress curve (one request for the whole run).
+  useEffect(() => {
+    if (!id) return;
+    let cancelled = false;
+    let closeStream: (() => void) | null = null;
+    api
+      .startExecution(Number(id))
+      .then((snapshot) => {
+        if (cancelled) return;
+        applySnapshot(snapshot);
+        closeStream = api.subscribeExecution(
+          snapshot.sessionId,
+          applySnapshot,
+          (timer) => {
+            setTimers((running) =>
+              running.filter((t) => t.timerId !== timer.timerId),
+            );
+            setExpiredTimer(timer);
+          },
+        );
+      })
+      .catch((e) => {
+        console.error("Failed to start execution", e);
+        api
+          .getProgressCurve(Number(id))
+          .then(setProgressCurve)
+          .catch((e) => console.error("Failed to load progress curve", e));
+      });
+    return () => {
+      cancelled = true;
+      closeStream?.();
+    };
+  }, [id]);
+
+  // Opened by URL: the recipe may not be on a loaded page
+  useEffect(() => {
+    if (id) loadRecipe(id);
+  }, [id]);
 
   if (!id) {
     return (
@@ -40,27 +97,84 @@ export default function RecipeExecute() {
   const currentStep = recipe.steps[currentStepIndex];
   const isCompleted = currentStepIndex >= recipe.steps.length;
 
+  const isPaused = execution?.status === "PAUSED";
+
   const handleNextStep = async () => {
+    if (execution) {
+      try {
+        applySnapshot(
+          await api.changeExecution(execution.sessionId, "advance"),
+        );
+      } catch (e) {
+        console.error("Failed to advance execution", e);
+      }
+      return;
+    }
+
     if (currentStepIndex < recipe.steps.length) {
       // Calculate progress from backend
       // We are completing the current step (order = index + 1)
       const completedStepOrder = recipe.steps[currentStepIndex].stepOrder;
 
-      try {
-        const progress = await api.getExecutionProgress(
-          Number(id),
-          completedStepOrder,
-        );
-        setProgressValue(progress);
-      } catch (e) {
-        console.error("Failed to update progress", e);
-        console.error("Failed to update progress", e);
+      const point = progressCurve?.find(
+        (p) => p.stepOrder === completedStepOrder,
+      );
+      if (point) {
+        setProgressValue(point.progress);
+      } else {
+        // Curve not loaded (yet): ask for this step only
+        try {
+          const progress = await api.getExecutionProgress(
+            Number(id),
+            completedStepOrder,
+          );
+          setProgressValue(progress);
+        } catch (e) {
+          console.error("Failed to update progress", e);
+          console.error("Failed to update progress", e);
+        }
       }
 
       setCurrentStepIndex(currentStepIndex + 1);
     }
   };
 
+  const handleTogglePause = async () => {
+    if (!execution) return;
+    try {
+      applySnapshot(
+        await api.changeExecution(
+          execution.sessionId,
+          isPaused ? "resume" : "pause",
+        ),
+      );
+    } catch (e) {
+      console.error("Failed to pause/resume execution", e);
+    }
+  };
+
+  const currentTimer = currentStep
+    ? timers.find((t) => t.stepOrder === currentStep.stepOrder)
+    : undefined;
+
+  const handleToggleTimer = async () => {
+    if (!execution || !currentStep) return;
+    try {
+      if (currentTimer) {
+        await api.cancelStepTimer(execution.sessionId, currentTimer.timerId);
+        setTimers(timers.filter((t) => t.timerId !== currentTimer.timerId));
+      } else {
+        const timer = await api.startStepTimer(
+          execution.sessionId,
+          currentStep.stepOrder,
+        );
+        setTimers([...timers, timer]);
+      }
+    } catch (e) {
+      console.error("Failed to start/cancel timer", e);
+    }
+  };
+
   const handleFinish = () => {
     navigate(`/recipes/${id}`);
   };
@@ -114,6 +228,25 @@ export default function RecipeExecute() {
             <Progress value={progressValue} />
           </div>
 
+          {/* Χρονόμετρο που έληξε (ειδοποίηση από τον server) */}
+          {expiredTimer && (
+            <div className="flex justify-between items-center rounded border border-amber-300 bg-amber-50 px-4 py-2 text-sm">
+              <span>
+                Έληξε το χρονόμετρο του βήματος{" "}
+                {recipe.steps.find(
+                  (step) => step.stepOrder === expiredTimer.stepOrder,
+                )?.title ?? expiredTimer.stepOrder}
+              </span>
+              <Button
+                variant="outline"
+                size="sm"
+                onClick={() => setExpiredTimer(null)}
+              >
+                OK
+              </Button>
+            </div>
+          )}
+
           {/* Τρέχον βήμα */}
           {currentStep && (
             <Card className="border-2 border-neutral-200">
@@ -127,13 +260,30 @@ export default function RecipeExecute() {
                 <p className="text-neutral-700 leading-relaxed mb-4">
                   {currentStep.description}
                 </p>
+                {execution && currentStep.durationMinutes > 0 && (
+                  <div className="flex items-center gap-3 text-sm">
+                    <Button
+                      variant="outline"
+                      size="sm"
+                      onClick={handleToggleTimer}
+                    >
+                      {currentTimer ? "Ακύρωση χρονομέτρου" : "Χρονόμετρο"}
+                    </Button>
+                    {currentTimer && (
+                      <span className="text-neutral-500">
+                        Λήγει στις{" "}
+                        {new Date(currentTimer.expiresAt).toLocaleTimeString()}
+                      </span>
+                    )}
+                  </div>
+                )}
                 {currentStep.imageUrl && (
                   <div className="rounded-lg overflow-hidden border border-neutral-100">
                     <img
                       src={
                         currentStep.imageUrl.startsWith("http")
                           ? currentStep.imageUrl
-                          : `http://localhost:8080/api/recipes/${id}/steps/${currentStep.id}/photo/${currentStep.imageUrl}`
+                          : `http://localhost:8080/api/recipes/${id}/steps/${currentStep.id}/photo/${currentStep.imageUrl}?w=1280`
                       }
                       alt={currentStep.title}
                       className="w-full h-auto max-h-64 object-cover"
@@ -158,11 +308,20 @@ export default function RecipeExecute() {
 
           {/* Κουμπιά ενεργειών */}
           <div className="flex gap-3 pt-4">
-            <Button onClick={handleNextStep} className="flex-1">
+            <Button
+              onClick={handleNextStep}
+              disabled={isPaused}
+              className="flex-1"
+            >
               {currentStepIndex === recipe.steps.length - 1
                 ? "Ολοκλήρωση"
                 : "Επόμενο Βήμα"}
             </Button>
+            {execution && (
+              <Button variant="outline" onClick={handleTogglePause}>
+                {isPaused ? "Συνέχεια" : "Παύση"}
+              </Button>
+            )}
             <Button
               variant="outline"
               onClick={() => navigate(`/recipes/${id}`)}
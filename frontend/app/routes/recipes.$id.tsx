@@ -1,3 +1,4 @@
+import { useEffect } from "react";
 import { Link, useParams, useNavigate } from "react-router";
 import { useRecipes } from "~/context/RecipesContext";
 import { Button } from "~/components/ui/button";
@@ -13,7 +14,12 @@ const difficultyLabels: Record<string, string> = {
 export default function RecipeView() {
   const { id } = useParams();
   const navigate = useNavigate();
-  const { getRecipe } = useRecipes();
+  const { getRecipe, loadRecipe } = useRecipes();
+
+  // Opened by URL: the recipe may not be on a loaded page
+  useEffect(() => {
+    if (id) loadRecipe(id);
+  }, [id]);
 
   if (!id) {
     return (
@@ -71,7 +77,7 @@ export default function RecipeView() {
                   src={
                     url.startsWith("http")
                       ? url
-                      : `http://localhost:8080/api/recipes/${recipe.id}/photo/${url}`
+                      : `http://localhost:8080/api/recipes/${recipe.id}/photo/${url}?w=640`
                   }
                   alt={`Recipe shot ${idx + 1}`}
                   className="h-48 w-auto rounded-md object-cover"
@@ -114,7 +120,7 @@ export default function RecipeView() {
                           src={
                             step.imageUrl.startsWith("http")
                               ? step.imageUrl
-                              : `http://localhost:8080/api/recipes/${recipe.id}/steps/${step.id}/photo/${step.imageUrl}`
+                              : `http://localhost:8080/api/recipes/${recipe.id}/steps/${step.id}/photo/${step.imageUrl}?w=320`
                           }
                           alt={`Step ${step.stepOrder}`}
                           className="h-32 w-auto rounded-md object-cover"
@@ -25,8 +25,13 @@ import { Checkbox } from "~/components/ui/checkbox";
 export default function RecipeForm() {
   const navigate = useNavigate();
   const { id } = useParams();
-  const { recipes, getRecipe, createRecipe, updateRecipe, refreshRecipes } =
-    useRecipes();
+  const {
+    getRecipe,
+    loadRecipe,
+    createRecipe,
+    updateRecipe,
+    refreshRecipes,
+  } = useRecipes();
   // We compare with string because url params are strings
   const isEdit = !!id;
 
@@ -45,10 +50,17 @@ export default function RecipeForm() {
   const [existingPhotos, setExistingPhotos] = useState<string[]>([]);
   const [stepPhotos, setStepPhotos] = useState<Record<number, File>>({}); // index -> file
 
+  // Opened by URL: the recipe may not be on a loaded page
+  useEffect(() => {
+    if (isEdit && id) loadRecipe(id);
+  }, [isEdit, id]);
+
+  // Re-run when data loads (a page of recipes, or this recipe on its own)
+  const loadedRecipe = isEdit && id ? getRecipe(id) : undefined;
+
   useEffect(() => {
     if (isEdit && id) {
-      // Find directly from recipes array to ensure reactivity when data loads
-      const recipe = recipes.find((r) => r.id.toString() === id.toString());
+      const recipe = loadedRecipe;
       if (recipe) {
         setName(recipe.title);
         setCategory(recipe.category);
@@ -59,7 +71,7 @@ export default function RecipeForm() {
         setExistingPhotos(recipe.imageUrls || []);
       }
     }
-  }, [isEdit, id, recipes]);
+  }, [isEdit, id, loadedRecipe]);
 
   // --- Ingredient Handlers ---
   const handleAddIngredient = () => {
@@ -252,7 +264,7 @@ export default function RecipeForm() {
                         src={
                           url.startsWith("http")
                             ? url
-                            : `http://localhost:8080/api/recipes/${id}/photo/${url}`
+                            : `http://localhost:8080/api/recipes/${id}/photo/${url}?w=320`
                         }
                         alt={`Exists ${idx}`}
                         className="h-16 w-16 object-cover rounded border"
@@ -400,7 +412,7 @@ export default function RecipeForm() {
                             src={
                               step.imageUrl.startsWith("http")
                                 ? step.imageUrl
-                                : `http://localhost:8080/api/recipes/${id}/steps/${step.id}/photo/${step.imageUrl}`
+                                : `http://localhost:8080/api/recipes/${id}/steps/${step.id}/photo/${step.imageUrl}?w=320`
                             }
                             alt="Step"
                             className="h-20 w-auto rounded object-cover"
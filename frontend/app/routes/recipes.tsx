@@ -11,7 +11,8 @@ const difficultyLabels: Record<Difficulty, string> = {
 };
 
 export default function RecipesList() {
-  const { recipes, loading, deleteRecipe } = useRecipes();
+  const { recipes, loading, hasMore, loadingMore, loadMoreRecipes, deleteRecipe } =
+    useRecipes();
 
   const handleDelete = async (id: string, name: string) => {
     if (confirm(`Θέλετε σίγουρα να διαγράψετε τη συνταγή "${name}";`)) {
@@ -85,6 +86,14 @@ export default function RecipesList() {
           ))}
         </div>
       )}
+
+      {hasMore && (
+        <div className="text-center mt-8">
+          <Button variant="outline" onClick={loadMoreRecipes} disabled={loadingMore}>
+            {loadingMore ? "Φόρτωση..." : "Περισσότερες συνταγές"}
+          </Button>
+        </div>
+      )}
     </div>
   );
 }